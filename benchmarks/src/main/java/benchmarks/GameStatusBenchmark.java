@@ -0,0 +1,38 @@
+package benchmarks;
+
+import chess.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures deciding whether the side to move is checkmated. The game keeps its status until the
+ * turn changes, so that is cleared before every call, leaving either the position cache or the
+ * full computation to answer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStatusBenchmark {
+    @Param({"start", "middlegame", "checkmate"})
+    private String position;
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    private ChessGame game;
+
+    @Setup
+    public void setUp() {
+        game = Positions.create(position);
+        game.setPositionCache(cached ? new PositionCache(1024) : null);
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        game.setTeamTurn(game.getTeamTurn());
+        return game.isInCheckmate(game.getTeamTurn());
+    }
+}
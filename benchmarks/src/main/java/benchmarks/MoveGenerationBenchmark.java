@@ -0,0 +1,59 @@
+package benchmarks;
+
+import chess.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures generating the moves of every piece of the side to move, with and without removing
+ * the moves that leave the king in check. The position cache is turned off so every call
+ * generates the moves.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Param({"start", "middlegame", "kiwipete"})
+    private String position;
+
+    private ChessGame game;
+    private List<ChessPosition> piecePositions;
+
+    @Setup
+    public void setUp() {
+        game = Positions.create(position);
+        game.setPositionCache(null);
+        piecePositions = new ArrayList<>();
+        ChessBoard board = game.getBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var piecePosition = new ChessPosition(row, col);
+                ChessPiece piece = board.getPiece(piecePosition);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    piecePositions.add(piecePosition);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        ChessBoard board = game.getBoard();
+        for (ChessPosition piecePosition : piecePositions) {
+            blackhole.consume(board.getPiece(piecePosition).pieceMoves(board, piecePosition));
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition piecePosition : piecePositions) {
+            blackhole.consume(game.validMoves(piecePosition));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import chess.*;
+
+/**
+ * Games used as benchmark inputs, from the opening to a checkmate, plus kiwipete, a middlegame
+ * full of castling, en passant and promotion moves
+ */
+final class Positions {
+    private static final String[] MIDDLEGAME_MOVES = {"e2e4", "e7e5", "g1f3", "b8c6", "f1c4",
+        "f8c5", "c2c3", "g8f6", "d2d4", "e5d4", "c3d4", "c5b4", "b1c3", "d7d5", "e4d5", "f6d5",
+        "d1b3", "c8e6"};
+    private static final String[] CHECKMATE_MOVES = {"f2f3", "e7e5", "g2g4", "d8h4"};
+    private static final String KIWIPETE =
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    private Positions() {}
+
+    /**
+     * @param name one of "start", "middlegame", "checkmate" or "kiwipete"
+     * @return a new game at the named position
+     */
+    static ChessGame create(String name) {
+        return switch (name) {
+            case "start" -> new ChessGame();
+            case "middlegame" -> play(MIDDLEGAME_MOVES);
+            case "checkmate" -> play(CHECKMATE_MOVES);
+            case "kiwipete" -> ChessGame.fromFen(KIWIPETE);
+            default -> throw new IllegalArgumentException("Unknown position: " + name);
+        };
+    }
+
+    private static ChessGame play(String... moves) {
+        var game = new ChessGame();
+        for (String move : moves) {
+            try {
+                game.makeMove(new ChessMove(parseSquare(move, 0), parseSquare(move, 2), null));
+            } catch (InvalidMoveException ex) {
+                throw new IllegalStateException("Illegal benchmark move " + move, ex);
+            }
+        }
+        return game;
+    }
+
+    private static ChessPosition parseSquare(String move, int offset) {
+        return new ChessPosition(move.charAt(offset + 1) - '0', move.charAt(offset) - 'a' + 1);
+    }
+}
@@ -0,0 +1,71 @@
+package benchmarks;
+
+import chess.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import serializer.GameCodec;
+import serializer.Serializer;
+
+/**
+ * Measures copying a board and converting a game to and from JSON, FEN and the binary storage
+ * format, as done every time a game is stored or sent to a client
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"start", "middlegame"})
+    private String position;
+
+    private final Serializer serializer = new Serializer();
+    private ChessGame game;
+    private String json;
+    private String fen;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        game = Positions.create(position);
+        json = serializer.toJson(game);
+        fen = game.toFen();
+        encoded = GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessBoard cloneBoard() {
+        return game.getBoard().clone();
+    }
+
+    @Benchmark
+    public String toJson() {
+        return serializer.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return serializer.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public String toFen() {
+        return game.toFen();
+    }
+
+    @Benchmark
+    public ChessGame fromFen() {
+        return ChessGame.fromFen(fen);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return GameCodec.encode(game);
+    }
+
+    @Benchmark
+    public ChessGame decode() {
+        return GameCodec.decode(encoded);
+    }
+}
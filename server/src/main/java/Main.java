@@ -6,6 +6,8 @@ public class Main {
         try {
             Server server = new Server();
             server.run(port);
+            // writes games still held in memory when the process is stopped
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
         } catch (RuntimeException e) {
             System.out.println("Verify that DB is running: " + e.getMessage());
         }
@@ -0,0 +1,300 @@
+package dataaccess;
+
+import model.*;
+import serializer.GameCodec;
+import service.AuthorizationException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps games in memory in front of another {@link DataAccess}. Games are read from the other
+ * store once and then served from memory, and updates are applied in memory and written back in
+ * batches every flush interval. Users and auth tokens pass straight through.
+ * <p>
+ * Games are copied on the way in and out, so callers may change the games they are given without
+ * changing the cache. Games that are idle for longer than the idle time and have no pending
+ * writes are dropped from memory. {@link #close()} writes every pending game before returning.
+ */
+public class CachingDataAccess implements DataAccess, AutoCloseable {
+    public static final long DEFAULT_FLUSH_MILLIS = 250;
+    public static final long DEFAULT_IDLE_MILLIS = 600000;
+
+    private final DataAccess delegate;
+    private final long idleMillis;
+    private final ConcurrentMap<Integer, CachedGame> games = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, GameData> pendingWrites = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public CachingDataAccess(DataAccess delegate) {
+        this(delegate, DEFAULT_FLUSH_MILLIS, DEFAULT_IDLE_MILLIS);
+    }
+
+    /**
+     * @param delegate the store games are read from and written to
+     * @param flushMillis how often to write pending games
+     * @param idleMillis how long a game may go unused before it is dropped from memory
+     */
+    public CachingDataAccess(DataAccess delegate, long flushMillis, long idleMillis) {
+        this.delegate = delegate;
+        this.idleMillis = idleMillis;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "game-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public UserData findUserData(String username)
+            throws AuthorizationException, DataAccessException {
+        return delegate.findUserData(username);
+    }
+
+    public void createUser(UserData data) throws AuthorizationException, DataAccessException {
+        delegate.createUser(data);
+    }
+
+    public AuthData findAuthData(String authToken)
+            throws AuthorizationException, DataAccessException {
+        return delegate.findAuthData(authToken);
+    }
+
+    public void createAuth(AuthData data) throws AuthorizationException, DataAccessException {
+        delegate.createAuth(data);
+    }
+
+    public void deleteAuth(String authToken) throws AuthorizationException, DataAccessException {
+        delegate.deleteAuth(authToken);
+    }
+
+    /**
+     * Lists the stored games, with a copy of the cached version of any game held in memory
+     */
+    public ArrayList<GameData> listGames() throws DataAccessException {
+        ArrayList<GameData> gamesList = delegate.listGames();
+        for (int i = 0; i < gamesList.size(); i++) {
+            var cached = games.get(gamesList.get(i).gameID());
+            if (cached != null) {
+                gamesList.set(i, copy(cached.data()));
+            }
+        }
+        return gamesList;
+    }
+
+    public GameData findGameData(Integer gameID) throws DataAccessException {
+        var cached = games.get(gameID);
+        if (cached == null) {
+            var stored = delegate.findGameData(gameID);
+            if (stored == null) {
+                return null;
+            }
+            var loaded = new CachedGame(copy(stored));
+            // a game written while this one was loading is newer, so it wins
+            cached = games.putIfAbsent(gameID, loaded);
+            if (cached == null) {
+                cached = loaded;
+            }
+        }
+
+        cached.touch();
+        return copy(cached.data());
+    }
+
+    public void createGame(GameData data) throws AuthorizationException, DataAccessException {
+        delegate.createGame(data);
+        games.put(data.gameID(), new CachedGame(copy(data)));
+    }
+
+    /**
+     * Applies an update in memory and queues it to be written. The game is checked against the
+     * other store first, so a game it would reject is refused here rather than at the next flush.
+     */
+    public void updateGame(GameData data) throws AuthorizationException, DataAccessException {
+        delegate.validateGame(data);
+        var snapshot = copy(data);
+        games.put(data.gameID(), new CachedGame(snapshot));
+        pendingWrites.put(data.gameID(), snapshot);
+    }
+
+    public void updateGames(Collection<GameData> data)
+            throws AuthorizationException, DataAccessException {
+        for (var gameData : data) {
+            updateGame(gameData);
+        }
+    }
+
+    public void validateGame(GameData data) throws AuthorizationException, DataAccessException {
+        delegate.validateGame(data);
+    }
+
+    /**
+     * Writes every pending game to the other store in one batch. A game updated again while the
+     * batch is written stays pending. If the batch fails, the games are written one at a time so
+     * one bad game cannot hold back the rest: a game the other store rejects is dropped, and a
+     * game that fails to write for any other reason stays pending.
+     */
+    public synchronized void flush() throws AuthorizationException, DataAccessException {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+
+        var batch = new ArrayList<>(pendingWrites.values());
+        try {
+            delegate.updateGames(batch);
+        } catch (AuthorizationException | DataAccessException ex) {
+            batch = writeEach(batch);
+            if (batch.isEmpty()) {
+                throw ex;
+            }
+        }
+        for (var gameData : batch) {
+            removePending(gameData);
+        }
+    }
+
+    /**
+     * Writes games one at a time
+     *
+     * @return the games that were written
+     */
+    private ArrayList<GameData> writeEach(Collection<GameData> batch) {
+        var written = new ArrayList<GameData>();
+        for (var gameData : batch) {
+            try {
+                delegate.validateGame(gameData);
+            } catch (AuthorizationException | DataAccessException ex) {
+                System.err.println("Dropping game " + gameData.gameID() + ": " + ex.getMessage());
+                removePending(gameData);
+                continue;
+            }
+
+            try {
+                delegate.updateGame(gameData);
+                written.add(gameData);
+            } catch (AuthorizationException | DataAccessException ex) {
+                System.err.println("Could not write game " + gameData.gameID() + ": "
+                        + ex.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private void removePending(GameData gameData) {
+        // only drop the exact snapshot written, since equal games can still differ in state
+        // that equals ignores, such as whether the game is playable
+        pendingWrites.computeIfPresent(gameData.gameID(),
+                (gameID, pending) -> (pending == gameData ? null : pending));
+    }
+
+    /**
+     * @return the number of games waiting to be written
+     */
+    public int pendingGames() {
+        return pendingWrites.size();
+    }
+
+    /**
+     * @return the number of games held in memory
+     */
+    public int cachedGames() {
+        return games.size();
+    }
+
+    public void clearUserDAO() throws DataAccessException {
+        delegate.clearUserDAO();
+    }
+
+    public void clearAuthDAO() throws DataAccessException {
+        delegate.clearAuthDAO();
+    }
+
+    public synchronized void clearGameDAO() throws DataAccessException {
+        pendingWrites.clear();
+        games.clear();
+        delegate.clearGameDAO();
+    }
+
+    public boolean isUserDataEmpty() throws DataAccessException {
+        return delegate.isUserDataEmpty();
+    }
+
+    public boolean isAuthDataEmpty() throws DataAccessException {
+        return delegate.isAuthDataEmpty();
+    }
+
+    public boolean isGameDataEmpty() throws DataAccessException {
+        return games.isEmpty() && delegate.isGameDataEmpty();
+    }
+
+    /**
+     * Stops the scheduled flushes and writes every pending game
+     */
+    @Override
+    public void close() throws DataAccessException {
+        flusher.shutdown();
+        try {
+            flush();
+        } catch (AuthorizationException ex) {
+            throw new DataAccessException(ex.getMessage());
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+            evictIdleGames();
+        } catch (Exception ex) {
+            // the games stay pending, so the next flush tries them again
+            ex.printStackTrace();
+        }
+    }
+
+    private void evictIdleGames() {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        for (Map.Entry<Integer, CachedGame> entry : games.entrySet()) {
+            if (entry.getValue().touched() < cutoff) {
+                games.computeIfPresent(entry.getKey(), (gameID, cached) ->
+                        (cached.touched() < cutoff && !pendingWrites.containsKey(gameID) ? null
+                                : cached));
+            }
+        }
+    }
+
+    private static GameData copy(GameData data) {
+        if (data.game() == null) {
+            return data;
+        }
+        var game = GameCodec.decode(GameCodec.encode(data.game()));
+        return new GameData(data.gameID(), data.whiteUsername(), data.blackUsername(),
+                data.gameName(), game);
+    }
+
+    private static class CachedGame {
+        private final GameData data;
+        private volatile long touched = System.currentTimeMillis();
+
+        CachedGame(GameData data) {
+            this.data = data;
+        }
+
+        GameData data() {
+            return data;
+        }
+
+        long touched() {
+            return touched;
+        }
+
+        void touch() {
+            touched = System.currentTimeMillis();
+        }
+    }
+}
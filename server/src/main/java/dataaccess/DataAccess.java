@@ -3,6 +3,7 @@ package dataaccess;
 import model.*;
 import service.AuthorizationException;
 import java.util.ArrayList;
+import java.util.Collection;
 
 public interface DataAccess {
     UserData findUserData(String username) throws AuthorizationException, DataAccessException;
@@ -23,6 +24,13 @@ public interface DataAccess {
 
     void updateGame(GameData data) throws AuthorizationException, DataAccessException;
 
+    /**
+     * Checks that a game could be written, throwing the same errors writing it would
+     */
+    void validateGame(GameData data) throws AuthorizationException, DataAccessException;
+
+    void updateGames(Collection<GameData> data) throws AuthorizationException, DataAccessException;
+
     void clearUserDAO() throws DataAccessException;
 
     void clearAuthDAO() throws DataAccessException;
@@ -1,8 +1,10 @@
 package dataaccess;
 
 import model.*;
+import service.AuthorizationException;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.Collection;
 
 public class MemoryDataAccess implements DataAccess {
 
@@ -50,6 +52,15 @@ public class MemoryDataAccess implements DataAccess {
         createGame(newGD);
     }
 
+    public void validateGame(GameData data) throws AuthorizationException, DataAccessException {}
+
+    public void updateGames(Collection<GameData> data)
+            throws AuthorizationException, DataAccessException {
+        for (var newGD : data) {
+            updateGame(newGD);
+        }
+    }
+
     public void clearUserDAO() {
         userData.clear();
     }
@@ -4,14 +4,17 @@ import model.*;
 import java.sql.*;
 import serializer.*;
 import chess.ChessGame;
+import chess.ChessPiece;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.nio.charset.StandardCharsets;
 import org.mindrot.jbcrypt.BCrypt;
 import service.AuthorizationException;
 import com.google.gson.JsonSyntaxException;
 
 public class MySqlDataAccess implements DataAccess {
 
-    private final Serializer serializer = new Serializer();
+    private static final Serializer SERIALIZER = new Serializer();
     private final String[] createStatements = {"""
             CREATE TABLE IF NOT EXISTS userdata (
                 username VARCHAR(255) NOT NULL PRIMARY KEY,
@@ -31,7 +34,7 @@ public class MySqlDataAccess implements DataAccess {
                 whiteUsername VARCHAR(255),
                 blackUsername VARCHAR(255),
                 gameName VARCHAR(255) NOT NULL,
-                game longtext NOT NULL,
+                game BLOB NOT NULL,
                 foreign key(whiteUsername) references userdata(username),
                 foreign key(blackUsername) references userdata(username),
                 UNIQUE (id)
@@ -143,7 +146,7 @@ public class MySqlDataAccess implements DataAccess {
                     String whiteUsername = rs.getString("whiteUsername");
                     String blackUsername = rs.getString("blackUsername");
                     String gameName = rs.getString("gameName");
-                    ChessGame game = serializer.fromJson(rs.getString("game"), ChessGame.class);
+                    ChessGame game = readGame(rs.getBytes("game"));
 
                     games.add(new GameData(id, whiteUsername, blackUsername, gameName, game));
                 }
@@ -169,7 +172,7 @@ public class MySqlDataAccess implements DataAccess {
                 String whiteUsername = rs.getString("whiteUsername");
                 String blackUsername = rs.getString("blackUsername");
                 String gameName = rs.getString("gameName");
-                ChessGame game = serializer.fromJson(rs.getString("game"), ChessGame.class);
+                ChessGame game = readGame(rs.getBytes("game"));
 
                 return new GameData(foundGameID, whiteUsername, blackUsername, gameName, game);
             }
@@ -179,7 +182,7 @@ public class MySqlDataAccess implements DataAccess {
     }
 
     public void createGame(GameData data) throws AuthorizationException, DataAccessException {
-        String game = sanitizeGameData(data);
+        byte[] game = sanitizeGameData(data);
 
         String statement =
                 "INSERT INTO gamedata (id, whiteUsername, blackUsername, gameName, game) VALUES (?, ?, ?, ?, ?)";
@@ -193,7 +196,7 @@ public class MySqlDataAccess implements DataAccess {
     }
 
     public void updateGame(GameData data) throws AuthorizationException, DataAccessException {
-        String game = sanitizeGameData(data);
+        byte[] game = sanitizeGameData(data);
 
         String statement =
                 "UPDATE gamedata SET whiteUsername=?, blackUsername=?, gameName=?, game=? where id=?";
@@ -206,6 +209,40 @@ public class MySqlDataAccess implements DataAccess {
         }
     }
 
+    public void validateGame(GameData data) throws AuthorizationException, DataAccessException {
+        sanitizeGameData(data);
+    }
+
+    /**
+     * Writes several games in one batch on one connection, committing them together
+     */
+    public void updateGames(Collection<GameData> data)
+            throws AuthorizationException, DataAccessException {
+        if (data.isEmpty()) {
+            return;
+        }
+
+        String statement =
+                "UPDATE gamedata SET whiteUsername=?, blackUsername=?, gameName=?, game=? where id=?";
+        try (var conn = DatabaseManager.getConnection();
+                var preparedStatement = conn.prepareStatement(statement)) {
+            conn.setAutoCommit(false);
+            try {
+                for (var gameData : data) {
+                    setUpdateStatement(gameData, sanitizeGameData(gameData), preparedStatement);
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                conn.commit();
+            } catch (SQLException | DataAccessException | AuthorizationException ex) {
+                conn.rollback();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new DataAccessException(ex.getMessage());
+        }
+    }
+
     public void clearUserDAO() throws DataAccessException {
         clearDAO("userdata");
     }
@@ -255,16 +292,16 @@ public class MySqlDataAccess implements DataAccess {
         }
     }
 
-    private void setCreateStatement(GameData data, String game, PreparedStatement preparedStatement)
+    private void setCreateStatement(GameData data, byte[] game, PreparedStatement preparedStatement)
             throws SQLException {
         preparedStatement.setInt(1, data.gameID());
         preparedStatement.setString(2, data.whiteUsername());
         preparedStatement.setString(3, data.blackUsername());
         preparedStatement.setString(4, data.gameName());
-        preparedStatement.setString(5, game);
+        preparedStatement.setBytes(5, game);
     }
 
-    private String sanitizeGameData(GameData data)
+    private byte[] sanitizeGameData(GameData data)
             throws AuthorizationException, DataAccessException {
         boolean cleanGameID = (Object) data.gameID() instanceof Integer;
         boolean nullWhiteUsername = data.whiteUsername() == null;
@@ -279,19 +316,33 @@ public class MySqlDataAccess implements DataAccess {
             throw new DataAccessException("Invalid gameData");
         }
 
+        if (data.game() == null) {
+            throw new DataAccessException("Invalid ChessGame Object");
+        }
+        return GameCodec.encode(data.game());
+    }
+
+    /**
+     * Reads a stored game, which is in the binary format unless it was written as JSON before
+     * the binary format existed and could not be converted
+     */
+    private ChessGame readGame(byte[] stored) throws DataAccessException {
         try {
-            return serializer.toJson(data.game());
-        } catch (JsonSyntaxException ex) {
+            if (GameCodec.isEncoded(stored)) {
+                return GameCodec.decode(stored);
+            }
+            return readJsonGame(new String(stored, StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | JsonSyntaxException ex) {
             throw new DataAccessException("Invalid ChessGame Object");
         }
     }
 
-    private void setUpdateStatement(GameData data, String game, PreparedStatement preparedStatement)
+    private void setUpdateStatement(GameData data, byte[] game, PreparedStatement preparedStatement)
             throws SQLException {
         preparedStatement.setString(1, data.whiteUsername());
         preparedStatement.setString(2, data.blackUsername());
         preparedStatement.setString(3, data.gameName());
-        preparedStatement.setString(4, game);
+        preparedStatement.setBytes(4, game);
         preparedStatement.setInt(5, data.gameID());
     }
 
@@ -333,9 +384,100 @@ public class MySqlDataAccess implements DataAccess {
                     preparedStatement.executeUpdate();
                 }
             }
+            migrateGameColumn(conn);
         } catch (SQLException ex) {
             throw new DataAccessException(
                     String.format("Unable to configure database: %s", ex.getMessage()));
         }
     }
+
+    /**
+     * Converts a game stored as JSON to the binary format, keeping the JSON as is if it cannot be
+     * read as a complete game, so a row is never overwritten with a game it did not hold
+     *
+     * @param gameID the game, for logging
+     * @param json the stored JSON
+     * @return the bytes to store for the game
+     */
+    static byte[] migrateGame(int gameID, String json) {
+        try {
+            return GameCodec.encode(readJsonGame(json));
+        } catch (RuntimeException ex) {
+            System.out.printf("Keeping game %d as JSON: %s%n", gameID, ex.getMessage());
+            return json.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Reads a game stored as JSON in any format the serializer knows
+     *
+     * @throws JsonSyntaxException if the JSON is not a game
+     * @throws IllegalArgumentException if the game does not have exactly one king per team,
+     *         which no playable game lacks, as when a board was read in a format it was not
+     *         written in
+     */
+    static ChessGame readJsonGame(String json) {
+        ChessGame game = SERIALIZER.fromJson(json, ChessGame.class);
+        if (game == null || game.getBoard() == null) {
+            throw new JsonSyntaxException("Stored game has no board");
+        }
+        for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+            long kings = game.getBoard().getPieceBitboard(team, ChessPiece.PieceType.KING);
+            if (Long.bitCount(kings) != 1) {
+                throw new IllegalArgumentException(
+                        "Stored game has " + Long.bitCount(kings) + " " + team + " kings");
+            }
+        }
+        return game;
+    }
+
+    /**
+     * Converts a gamedata table from before the binary format, whose games are JSON text, to a
+     * BLOB column of encoded games. Each game is written to a new column first and the old
+     * column is only dropped at the end, so a migration that stops part way starts over on the
+     * next run. Games that no longer parse are kept as their JSON bytes.
+     */
+    private void migrateGameColumn(Connection conn) throws SQLException {
+        String gameType = columnType(conn, "game");
+        if (gameType == null || gameType.equals("blob")) {
+            return;
+        }
+
+        if (columnType(conn, "gameBinary") == null) {
+            executeUpdate(conn, "ALTER TABLE gamedata ADD COLUMN gameBinary BLOB");
+        }
+
+        String update = "UPDATE gamedata SET gameBinary=? WHERE id=?";
+        try (var query = conn.prepareStatement("SELECT id, game FROM gamedata");
+                var rs = query.executeQuery();
+                var preparedStatement = conn.prepareStatement(update)) {
+            while (rs.next()) {
+                preparedStatement.setBytes(1, migrateGame(rs.getInt("id"), rs.getString("game")));
+                preparedStatement.setInt(2, rs.getInt("id"));
+                preparedStatement.executeUpdate();
+            }
+        }
+
+        executeUpdate(conn,
+                "ALTER TABLE gamedata DROP COLUMN game, CHANGE gameBinary game BLOB NOT NULL");
+    }
+
+    private String columnType(Connection conn, String column) throws SQLException {
+        String query = """
+                SELECT DATA_TYPE FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'gamedata' AND COLUMN_NAME = ?
+                """;
+        try (var preparedStatement = conn.prepareStatement(query)) {
+            preparedStatement.setString(1, column);
+            try (var rs = preparedStatement.executeQuery()) {
+                return (rs.next() ? rs.getString(1).toLowerCase() : null);
+            }
+        }
+    }
+
+    private void executeUpdate(Connection conn, String statement) throws SQLException {
+        try (var preparedStatement = conn.prepareStatement(statement)) {
+            preparedStatement.executeUpdate();
+        }
+    }
 }
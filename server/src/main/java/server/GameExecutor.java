@@ -0,0 +1,76 @@
+package server;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs tasks one game at a time: tasks for the same game run one after another in the order they
+ * were submitted, while tasks for different games run in parallel. Each game with pending work
+ * has a mailbox, the future of its last submitted task, and every new task is chained after it.
+ * The mailbox is dropped once its last task finishes, so idle games cost nothing.
+ */
+public class GameExecutor implements AutoCloseable {
+    public static final long CLOSE_TIMEOUT_MILLIS = 5000;
+
+    private final ExecutorService workers;
+    private final ConcurrentMap<Integer, CompletableFuture<Void>> mailboxes =
+            new ConcurrentHashMap<>();
+
+    public GameExecutor() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @param workers the threads to run tasks on
+     */
+    public GameExecutor(ExecutorService workers) {
+        this.workers = workers;
+    }
+
+    /**
+     * Queues a task behind every task already submitted for the same game. A task that throws
+     * does not stop the tasks queued behind it.
+     *
+     * @param gameID the game the task works on
+     * @param task the task to run
+     * @return a future completed once the task has run
+     */
+    public CompletableFuture<Void> submit(int gameID, Runnable task) {
+        CompletableFuture<Void> next = mailboxes.compute(gameID, (id, last) -> (last == null
+                ? CompletableFuture.runAsync(task, workers)
+                : last.exceptionally(ex -> null).thenRunAsync(task, workers)));
+        return next.whenComplete((result, ex) -> mailboxes.remove(gameID, next));
+    }
+
+    /**
+     * @return the number of games with tasks that have not finished
+     */
+    public int pendingGames() {
+        return mailboxes.size();
+    }
+
+    /**
+     * Waits up to {@link #CLOSE_TIMEOUT_MILLIS} for queued tasks to finish, then stops the
+     * workers. Queued tasks are chained rather than handed to the workers up front, so the
+     * mailboxes have to drain before the workers stop accepting tasks.
+     */
+    @Override
+    public void close() {
+        try {
+            CompletableFuture.allOf(mailboxes.values().toArray(CompletableFuture[]::new))
+                    .exceptionally(ex -> null)
+                    .get(CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            System.err.println("Closing with " + pendingGames() + " games still running");
+        }
+        workers.shutdownNow();
+    }
+}
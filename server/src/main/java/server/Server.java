@@ -1,6 +1,7 @@
 package server;
 
 import chess.*;
+import chess.engine.SearchResult;
 import spark.*;
 import service.*;
 import requests.*;
@@ -10,9 +11,12 @@ import model.GameData;
 import websocket.commands.*;
 import websocket.messages.*;
 import java.util.Map;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import serializer.Serializer;
 import com.google.gson.JsonSyntaxException;
 import org.eclipse.jetty.websocket.api.Session;
@@ -23,27 +27,31 @@ import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
 
 @WebSocket
 public class Server {
-    private Map<Integer, HashSet<Session>> sessions;
-    private Map<Session, HashSet<Integer>> reverseSessions;
-    private final DataAccess dataAccess;
+    // run with -Dchess.logMessages=true to print every message the server sends
+    private static final boolean LOG_MESSAGES = Boolean.getBoolean("chess.logMessages");
+
+    private final SessionRegistry<Session> sessions = new SessionRegistry<>();
+    private final CachingDataAccess dataAccess;
     private final ClearService clearService;
     private final UserService userService;
     private final GameService gameService;
+    private final EngineService engineService;
+    private final GameExecutor gameExecutor = new GameExecutor();
+    private final Map<Session, SessionOutbox> outboxes = new ConcurrentHashMap<>();
     private final Serializer serializer = new Serializer();
     private final Map<Integer, Character> columns =
             Map.of(1, 'a', 2, 'b', 3, 'c', 4, 'd', 5, 'e', 6, 'f', 7, 'g', 8, 'h');
 
     public Server() {
         try {
-            dataAccess = new MySqlDataAccess();
+            dataAccess = new CachingDataAccess(new MySqlDataAccess());
         } catch (DataAccessException ex) {
             throw new RuntimeException(ex.getMessage());
         }
         clearService = new ClearService(dataAccess);
         userService = new UserService(dataAccess);
         gameService = new GameService(dataAccess);
-        sessions = new HashMap<>();
-        reverseSessions = new HashMap<>();
+        engineService = new EngineService();
     }
 
     public Integer run(int desiredPort) {
@@ -59,43 +67,59 @@ public class Server {
     public void stop() {
         Spark.stop();
         Spark.awaitStop();
+        gameExecutor.close();
+        engineService.close();
+        try {
+            dataAccess.close();
+        } catch (DataAccessException ex) {
+            System.err.println("Could not write pending games: " + ex.getMessage());
+        }
     }
 
     @OnWebSocketConnect
     public void onConnect(Session session) {
         session.setIdleTimeout(300000);
+        outboxes.put(session, new SessionOutbox(session, SessionOutbox.DEFAULT_CAPACITY));
     }
 
     @OnWebSocketClose
-    public void cleanWebSocketSessions(Session session, int exitCode, String reason)
-            throws IOException {
-        var games = reverseSessions.get(session);
-        if (games == null) {
-            return;
-        }
-
-        for (int gameID : games) {
-            var currentSessionsSet = sessions.get(gameID);
-            if (currentSessionsSet == null) {
-                continue;
-            }
+    public void onClose(Session session, int exitCode, String reason) {
+        outboxes.remove(session);
+        cleanWebSocketSessions(session, exitCode, reason);
+    }
 
-            currentSessionsSet.remove(session);
-            if (currentSessionsSet.isEmpty()) {
-                sessions.remove(gameID);
-            }
+    private void cleanWebSocketSessions(Session session, int exitCode, String reason) {
+        if (!sessions.removeSession(session)) {
+            return;
         }
 
-        reverseSessions.remove(session);
         System.out.printf("%s: %s\n", session.getRemote().toString(), reason);
 
         sendServerMessage(session, new NotificationMessage(reason));
     }
 
+    /**
+     * Parses a command and queues it on its game's mailbox, so commands for one game run one at a
+     * time against the stored game while commands for other games run in parallel
+     */
     @OnWebSocketMessage
-    public void onMessage(Session session, String message) throws IOException {
+    public void onMessage(Session session, String message) {
+        UserGameCommand command;
+        int gameID;
+        try {
+            command = serializer.fromJson(message, UserGameCommand.class);
+            gameID = command.getGameID();
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            sendServerMessage(session, new ErrorMessage("Error: " + ex.getMessage()));
+            return;
+        }
+
+        gameExecutor.submit(gameID, () -> runCommand(session, command));
+    }
+
+    private void runCommand(Session session, UserGameCommand command) {
         try {
-            var command = serializer.fromJson(message, UserGameCommand.class);
             var game = findGame(command.getAuthToken(), command.getGameID());
             String user = userService.getUsername(command.getAuthToken());
             ChessGame.TeamColor teamColor = getTeamColor(user, game);
@@ -105,6 +129,7 @@ public class Server {
                 case MAKE_MOVE -> makeMove(session, command, user, teamColor, game);
                 case LEAVE -> leaveGame(session, command, user, teamColor);
                 case RESIGN -> resign(session, command, user, teamColor, game);
+                case HINT -> hint(session, command, game);
             }
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -126,66 +151,82 @@ public class Server {
             throws AuthorizationException, DataAccessException {
         var game = gameService.findGame(gameID, authToken);
         if (game == null) {
-            sessions.remove(gameID);
+            sessions.removeGame(gameID);
             throw new NullPointerException("Invalid game ID");
         }
         return game;
     }
 
-    private void sendServerMessage(Session session, ServerMessage message) throws IOException {
-        System.out.println(message);
-        session.getRemote().sendString(serializer.toJson(message));
+    private void sendServerMessage(Session session, ServerMessage message) {
+        sendFrame(session, encode(message));
     }
 
-    private void connect(Session session, UserGameCommand command, String username,
-            ChessGame.TeamColor teamColor, GameData game)
-            throws AuthorizationException, DataAccessException, IOException {
-
-        var currentSessions = addSessionToGame(session, command.getGameID());
-        sendConnectMessages(session, currentSessions, command, username, teamColor, game);
+    /**
+     * Serializes a message once, so the same frame can be sent to every session in a game
+     */
+    private String encode(ServerMessage message) {
+        if (LOG_MESSAGES) {
+            System.out.println(message);
+        }
+        return serializer.toJson(message);
     }
 
-    private HashSet<Session> addSessionToGame(Session session, int gameID) {
-        var currentSessions = sessions.get(gameID);
-        var currentGames = reverseSessions.get(session);
-
-        if (currentSessions == null) {
-            currentSessions = new HashSet<>();
+    /**
+     * Queues a frame on the session's outbox, so a slow session never blocks the sender
+     */
+    private void sendFrame(Session session, String frame) {
+        var outbox = outboxes.get(session);
+        if (outbox != null) {
+            outbox.send(frame);
         }
+    }
 
-        currentSessions.add(session);
-        sessions.put(gameID, currentSessions);
-
-        if (currentGames == null) {
-            currentGames = new HashSet<>();
+    /**
+     * Queues the state of a game, replacing a state of the same game the session has not been
+     * sent yet
+     */
+    private void sendGameState(Session session, int gameID, String frame) {
+        var outbox = outboxes.get(session);
+        if (outbox != null) {
+            outbox.sendLatest(gameID, frame);
         }
+    }
 
-        currentGames.add(gameID);
-        reverseSessions.put(session, currentGames);
+    private void connect(Session session, UserGameCommand command, String username,
+            ChessGame.TeamColor teamColor, GameData game)
+            throws AuthorizationException, DataAccessException {
 
-        return currentSessions;
+        var currentSessions = sessions.join(command.getGameID(), session);
+        // onClose drops the outbox before removing the session, so a session that closed while
+        // this command waited in the mailbox is caught here and not left in the registry
+        if (outboxes.get(session) == null || !session.isOpen()) {
+            sessions.leave(command.getGameID(), session);
+            return;
+        }
+        sendConnectMessages(session, currentSessions, command, username, teamColor, game);
     }
 
-    private void sendConnectMessages(Session rootSession, HashSet<Session> currentSessions,
-            UserGameCommand command, String username, ChessGame.TeamColor teamColor, GameData game)
-            throws IOException {
+    private void sendConnectMessages(Session rootSession, Set<Session> currentSessions,
+            UserGameCommand command, String username, ChessGame.TeamColor teamColor,
+            GameData game) {
+
+        sendGameState(rootSession, game.gameID(), encode(new LoadGameMessage(game.game())));
 
-        sendServerMessage(rootSession, new LoadGameMessage(game.game()));
+        StringBuilder message = new StringBuilder();
+        message.append(username).append(" has joined as ");
+        if (teamColor == null) {
+            message.append("an observer");
+        } else {
+            message.append(teamColor.toString().toLowerCase());
+        }
+        String notification = encode(new NotificationMessage(message.toString()));
 
         for (var ses : currentSessions) {
             if (ses.equals(rootSession)) {
                 continue;
             }
 
-            StringBuilder message = new StringBuilder();
-            message.append(username).append(" has joined as ");
-            if (teamColor == null) {
-                message.append("an observer");
-            } else {
-                message.append(teamColor.toString().toLowerCase());
-            }
-
-            sendServerMessage(ses, new NotificationMessage(message.toString()));
+            sendFrame(ses, notification);
         }
     }
 
@@ -195,7 +236,7 @@ public class Server {
         assertNotObserver(teamColor, "observers cannot make moves");
 
         int gameID = command.getGameID();
-        HashSet<Session> currentSessions = sessions.get(gameID);
+        var currentSessions = sessions.subscribers(gameID);
         verifySession(rootSession, currentSessions);
 
         ChessGame userGame = gameData.game();
@@ -215,8 +256,8 @@ public class Server {
         }
     }
 
-    private void verifySession(Session rootSession, HashSet<Session> currentSessions) {
-        if (currentSessions == null || !currentSessions.contains(rootSession)) {
+    private void verifySession(Session rootSession, Set<Session> currentSessions) {
+        if (!currentSessions.contains(rootSession)) {
             throw new NullPointerException("the game ID does not match the current session");
         }
     }
@@ -227,41 +268,37 @@ public class Server {
         }
     }
 
-    private void sendMakeMoveMessages(Session rootSession, HashSet<Session> currentSessions,
-            String username, ChessMove move, ChessGame game, GameData gameData) throws IOException {
+    private void sendMakeMoveMessages(Session rootSession, Set<Session> currentSessions,
+            String username, ChessMove move, ChessGame game, GameData gameData) {
+        String gameStateMessage = getGameStateMessage(game, gameData);
+        String loadGame = encode(new LoadGameMessage(game));
+        String moveNotification = encode(new NotificationMessage(parseMove(move, username)));
+        String gameStateNotification = (gameStateMessage == null ? null
+                : encode(new NotificationMessage(gameStateMessage)));
+
         for (var ses : currentSessions) {
-            sendServerMessage(ses, new LoadGameMessage(game));
+            sendGameState(ses, gameData.gameID(), loadGame);
 
             if (ses != rootSession) {
-                String message = parseMove(move, username);
-                sendServerMessage(ses, new NotificationMessage(message));
+                sendFrame(ses, moveNotification);
             }
 
-            sendGameStateMessage(ses, game, gameData);
+            if (gameStateNotification != null) {
+                sendFrame(ses, gameStateNotification);
+            }
         }
     }
 
-    private void sendGameStateMessage(Session ses, ChessGame game, GameData data)
-            throws IOException {
-
-        ChessGame.TeamColor[] teams = {ChessGame.TeamColor.WHITE, ChessGame.TeamColor.BLACK};
-        String[] usernames = {data.whiteUsername(), data.blackUsername()};
-        String[] statuses = {" is in check", " is in checkmate", " is in stalemate"};
-
-        String message = null;
-        for (int i = 0; i < teams.length && message == null; i++) {
-            if (game.isInCheckmate(teams[i])) {
-                message = usernames[i] + statuses[1];
-            } else if (game.isInCheck(teams[i])) {
-                message = usernames[i] + statuses[0];
-            } else if (game.isInStalemate(teams[i])) {
-                message = usernames[i] + statuses[2];
-            }
-        }
+    private String getGameStateMessage(ChessGame game, GameData data) {
+        String username = (game.getTeamTurn() == ChessGame.TeamColor.WHITE ? data.whiteUsername()
+                : data.blackUsername());
 
-        if (message != null) {
-            sendServerMessage(ses, new NotificationMessage(message));
-        }
+        return switch (game.getGameStatus()) {
+            case CHECK -> username + " is in check";
+            case CHECKMATE -> username + " is in checkmate";
+            case STALEMATE -> username + " is in stalemate";
+            case IN_PROGRESS -> null;
+        };
     }
 
     private String parseMove(ChessMove move, String username) {
@@ -283,7 +320,7 @@ public class Server {
     private void leaveGame(Session rootSession, UserGameCommand command, String username,
             ChessGame.TeamColor teamColor) throws Exception {
         int gameID = command.getGameID();
-        var currentSessions = sessions.get(gameID);
+        var currentSessions = sessions.subscribers(gameID);
         verifySession(rootSession, currentSessions);
 
         if (teamColor != null) {
@@ -295,14 +332,15 @@ public class Server {
         sendLeaveMessages(rootSession, currentSessions, message);
     }
 
-    private void sendLeaveMessages(Session rootSession, HashSet<Session> currentSessions,
-            String message) throws IOException {
+    private void sendLeaveMessages(Session rootSession, Set<Session> currentSessions,
+            String message) {
+        String notification = encode(new NotificationMessage(message));
         for (var ses : currentSessions) {
             if (ses.equals(rootSession)) {
                 continue;
             }
 
-            sendServerMessage(ses, new NotificationMessage(message));
+            sendFrame(ses, notification);
         }
     }
 
@@ -310,7 +348,7 @@ public class Server {
             ChessGame.TeamColor teamColor, GameData data) throws Exception {
 
         int gameID = command.getGameID();
-        var currentSessions = sessions.get(gameID);
+        var currentSessions = sessions.subscribers(gameID);
         verifySession(rootSession, currentSessions);
         assertNotObserver(teamColor, "observers cannot resign");
 
@@ -324,21 +362,59 @@ public class Server {
         sendResignMessages(rootSession, currentSessions, message);
     }
 
+    /**
+     * Queues an engine search for the side to move and sends the result to the requesting
+     * session when it finishes, leaving this WebSocket thread free in the meantime
+     */
+    private void hint(Session rootSession, UserGameCommand command, GameData gameData)
+            throws Exception {
+        verifySession(rootSession, sessions.subscribers(command.getGameID()));
+        ChessGame game = gameData.game();
+        assertPlayable(game);
+
+        engineService.findBestMove(game, null).whenComplete((result, ex) -> {
+            ServerMessage message = (ex != null ? new ErrorMessage("Error: " + ex.getMessage())
+                    : new NotificationMessage(formatHint(result)));
+            sendServerMessage(rootSession, message);
+        });
+    }
+
+    private String formatHint(SearchResult result) {
+        if (result.bestMove() == null) {
+            return "There are no moves to hint at";
+        }
+
+        ChessMove move = result.bestMove();
+        var builder = new StringBuilder();
+        builder.append("Hint: move from ");
+        builder.append(columns.get(move.getStartPosition().getColumn()));
+        builder.append(move.getStartPosition().getRow());
+        builder.append(" to ");
+        builder.append(columns.get(move.getEndPosition().getColumn()));
+        builder.append(move.getEndPosition().getRow());
+        if (move.getPromotionPiece() != null) {
+            builder.append(" and promote to a ");
+            builder.append(move.getPromotionPiece().toString().toLowerCase());
+        }
+        return builder.toString();
+    }
+
     private void assertPlayable(ChessGame game) throws Exception {
         if (!game.getPlayable()) {
             throw new Exception("the game can no longer be played");
         }
     }
 
-    private void sendResignMessages(Session rootSession, HashSet<Session> currentSessions,
-            String message) throws IOException {
+    private void sendResignMessages(Session rootSession, Set<Session> currentSessions,
+            String message) {
+        String notification = encode(new NotificationMessage(message));
         for (var ses : currentSessions) {
-            sendServerMessage(ses, new NotificationMessage(message));
+            sendFrame(ses, notification);
         }
     }
 
     private void createRoutes() {
-        Spark.webSocket("/ws", Server.class);
+        Spark.webSocket("/ws", this);
         Spark.delete("/db", this::clear);
         Spark.post("/user", this::register);
         Spark.post("/session", this::login);
@@ -346,6 +422,8 @@ public class Server {
         Spark.post("/game", this::createGame);
         Spark.put("/game", this::joinGame);
         Spark.get("/game", this::listGames);
+        Spark.post("/game/hint", this::hint);
+        Spark.get("/engine", this::engineStats);
     }
 
     private Object clear(Request req, Response res) throws DataAccessException {
@@ -472,6 +550,73 @@ public class Server {
         return "{}";
     }
 
+    private Object hint(Request req, Response res) {
+        res.type("application/json");
+        HintResponse response;
+        CompletableFuture<SearchResult> search = null;
+
+        try {
+            var hintRequest = serializer.fromJson(req.body(), HintRequest.class);
+            var game = gameService.findGame(hintRequest.gameID(), req.headers("authorization"));
+            if (game == null) {
+                throw new NullPointerException("Game does not exist");
+            }
+            if (!game.game().getPlayable()) {
+                res.status(400);
+                return serializer.toJson(
+                        new ErrorResponse("Error: the game can no longer be played"));
+            }
+
+            search = engineService.findBestMove(game.game(), hintRequest.timeMillis());
+            var result = search.get(EngineService.MAX_TIME_MILLIS * 2, TimeUnit.MILLISECONDS);
+            response = new HintResponse(result.bestMove(), result.score(), result.depth(),
+                    result.nodes(), result.nodesPerSecond());
+        } catch (NullPointerException | JsonSyntaxException e) {
+            res.status(400);
+            return serializer.toJson(new ErrorResponse("Error: bad request"));
+        } catch (AuthorizationException e) {
+            res.status(401);
+            return serializer.toJson(new ErrorResponse("Error: unauthorized"));
+        } catch (EngineBusyException | TimeoutException e) {
+            if (search != null) {
+                // frees the engine thread rather than letting an abandoned search run on
+                search.cancel(true);
+            }
+            res.status(503);
+            return serializer.toJson(new ErrorResponse("Error: the engine is busy"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            res.status(500);
+            return serializer.toJson(new ErrorResponse(e.getMessage()));
+        } catch (ExecutionException e) {
+            res.status(500);
+            return serializer.toJson(new ErrorResponse(e.getCause().getMessage()));
+        } catch (Throwable e) {
+            res.status(500);
+            return serializer.toJson(new ErrorResponse(e.getMessage()));
+        }
+
+        res.status(200);
+        return serializer.toJson(response);
+    }
+
+    private Object engineStats(Request req, Response res) {
+        res.type("application/json");
+
+        try {
+            userService.getUsername(req.headers("authorization"));
+        } catch (AuthorizationException e) {
+            res.status(401);
+            return serializer.toJson(new ErrorResponse("Error: unauthorized"));
+        } catch (Throwable e) {
+            res.status(500);
+            return serializer.toJson(new ErrorResponse(e.getMessage()));
+        }
+
+        res.status(200);
+        return serializer.toJson(engineService.getStats());
+    }
+
     private Object listGames(Request req, Response res) throws DataAccessException {
         res.type("application/json");
         ListGameResponse response;
@@ -0,0 +1,181 @@
+package server;
+
+import java.util.LinkedList;
+import java.util.ListIterator;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+/**
+ * Sends frames to one WebSocket session without blocking the sender. Frames wait in a bounded
+ * queue and are written one at a time, each write starting when the last one finishes. A game's
+ * state sent with {@link #sendLatest(int, String)} replaces an earlier state of the same game
+ * that is still waiting, since only the newest board matters. A session that falls so far behind
+ * that its queue fills up is closed, so it cannot hold up the rest of its game.
+ */
+public class SessionOutbox {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final int NO_GAME = -1;
+
+    /**
+     * Where an outbox writes its frames
+     */
+    public interface Connection {
+        void send(String frame, WriteCallback callback);
+
+        void close(int statusCode, String reason);
+    }
+
+    private final Connection connection;
+    private final int capacity;
+    private final LinkedList<Frame> queue = new LinkedList<>();
+    private final WriteCallback callback = new Callback();
+    private boolean writing;
+    private boolean closed;
+
+    /**
+     * @param session the session to send to
+     * @param capacity the number of frames that may wait before the session is closed
+     */
+    public SessionOutbox(Session session, int capacity) {
+        this(new Connection() {
+            @Override
+            public void send(String frame, WriteCallback callback) {
+                session.getRemote().sendString(frame, callback);
+            }
+
+            @Override
+            public void close(int statusCode, String reason) {
+                session.close(statusCode, reason);
+            }
+        }, capacity);
+    }
+
+    /**
+     * @param connection where to write frames
+     * @param capacity the number of frames that may wait before the connection is closed
+     */
+    public SessionOutbox(Connection connection, int capacity) {
+        this.connection = connection;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Queues a frame behind every frame already queued
+     *
+     * @param frame the frame to send
+     * @return True if the frame was queued, false if the outbox is closed
+     */
+    public boolean send(String frame) {
+        return offer(new Frame(frame, NO_GAME));
+    }
+
+    /**
+     * Queues the state of a game, replacing an earlier state of the same game that has not been
+     * written yet
+     *
+     * @param gameID the game the frame holds the state of
+     * @param frame the frame to send
+     * @return True if the frame was queued, false if the outbox is closed
+     */
+    public boolean sendLatest(int gameID, String frame) {
+        return offer(new Frame(frame, gameID));
+    }
+
+    /**
+     * @return the number of frames waiting to be written
+     */
+    public synchronized int queued() {
+        return queue.size();
+    }
+
+    /**
+     * @return True if the outbox no longer sends frames
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private boolean offer(Frame frame) {
+        Frame next;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            if (frame.gameID() != NO_GAME && replaceQueued(frame)) {
+                return true;
+            }
+            if (queue.size() >= capacity) {
+                closeQueue();
+                next = null;
+            } else {
+                queue.add(frame);
+                if (writing) {
+                    return true;
+                }
+                writing = true;
+                next = queue.poll();
+            }
+        }
+
+        if (next == null) {
+            connection.close(StatusCode.POLICY_VIOLATION, "Too many messages waiting to be sent");
+            return false;
+        }
+        write(next);
+        return true;
+    }
+
+    private boolean replaceQueued(Frame frame) {
+        ListIterator<Frame> frames = queue.listIterator();
+        while (frames.hasNext()) {
+            if (frames.next().gameID() == frame.gameID()) {
+                frames.set(frame);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(Frame frame) {
+        try {
+            connection.send(frame.text(), callback);
+        } catch (RuntimeException ex) {
+            callback.writeFailed(ex);
+        }
+    }
+
+    private void closeQueue() {
+        closed = true;
+        writing = false;
+        queue.clear();
+    }
+
+    private record Frame(String text, int gameID) {}
+
+    private class Callback implements WriteCallback {
+        @Override
+        public void writeSuccess() {
+            Frame next;
+            synchronized (SessionOutbox.this) {
+                next = (closed ? null : queue.poll());
+                if (next == null) {
+                    writing = false;
+                }
+            }
+
+            if (next != null) {
+                write(next);
+            }
+        }
+
+        @Override
+        public void writeFailed(Throwable ex) {
+            // the session has usually closed already, which cleans up its games
+            synchronized (SessionOutbox.this) {
+                closeQueue();
+            }
+        }
+    }
+}
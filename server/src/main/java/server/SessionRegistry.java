@@ -0,0 +1,126 @@
+package server;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks which WebSocket sessions follow which games, safe to use from any number of threads at
+ * once. Each game's subscribers and each session's games are concurrent sets inside concurrent
+ * maps, and a set is only created or dropped inside {@link ConcurrentMap#compute}, which locks
+ * just that key, so joins and leaves on different games never wait on each other.
+ * <p>
+ * Every session also records the games it joined, so dropping a closed session only touches
+ * those games instead of scanning every game.
+ *
+ * @param <S> the type of session
+ */
+public class SessionRegistry<S> {
+    private final ConcurrentMap<Integer, Set<S>> sessionsByGame = new ConcurrentHashMap<>();
+    private final ConcurrentMap<S, Set<Integer>> gamesBySession = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a session to a game's subscribers
+     *
+     * @param gameID the game to follow
+     * @param session the session following it
+     * @return a live view of the game's subscribers
+     */
+    public Set<S> join(int gameID, S session) {
+        Set<S> subscribers = sessionsByGame.compute(gameID, (id, current) -> {
+            Set<S> updated = (current == null ? ConcurrentHashMap.newKeySet() : current);
+            updated.add(session);
+            return updated;
+        });
+        gamesBySession.compute(session, (key, current) -> {
+            Set<Integer> updated = (current == null ? ConcurrentHashMap.newKeySet() : current);
+            updated.add(gameID);
+            return updated;
+        });
+        return Collections.unmodifiableSet(subscribers);
+    }
+
+    /**
+     * Removes a session from one game's subscribers
+     *
+     * @param gameID the game to stop following
+     * @param session the session to remove
+     */
+    public void leave(int gameID, S session) {
+        removeFrom(sessionsByGame, gameID, session);
+        removeFrom(gamesBySession, session, gameID);
+    }
+
+    /**
+     * Removes a session from every game it follows, such as when it closes
+     *
+     * @param session the session to remove
+     * @return True if the session followed any game
+     */
+    public boolean removeSession(S session) {
+        Set<Integer> games = gamesBySession.remove(session);
+        if (games == null) {
+            return false;
+        }
+
+        for (int gameID : games) {
+            removeFrom(sessionsByGame, gameID, session);
+        }
+        return true;
+    }
+
+    /**
+     * Drops every subscriber of a game, such as when it no longer exists
+     *
+     * @param gameID the game to drop
+     */
+    public void removeGame(int gameID) {
+        Set<S> subscribers = sessionsByGame.remove(gameID);
+        if (subscribers == null) {
+            return;
+        }
+
+        for (S session : subscribers) {
+            removeFrom(gamesBySession, session, gameID);
+        }
+    }
+
+    /**
+     * @param gameID the game to look up
+     * @return a live view of the game's subscribers, which is empty if it has none
+     */
+    public Set<S> subscribers(int gameID) {
+        Set<S> subscribers = sessionsByGame.get(gameID);
+        return (subscribers == null ? Set.of() : Collections.unmodifiableSet(subscribers));
+    }
+
+    /**
+     * @param gameID the game to look up
+     * @param session the session to look for
+     * @return True if the session follows the game
+     */
+    public boolean isSubscribed(int gameID, S session) {
+        Set<S> subscribers = sessionsByGame.get(gameID);
+        return subscribers != null && subscribers.contains(session);
+    }
+
+    /**
+     * @param session the session to look up
+     * @return the number of games the session follows
+     */
+    public int gameCount(S session) {
+        Set<Integer> games = gamesBySession.get(session);
+        return (games == null ? 0 : games.size());
+    }
+
+    /**
+     * Removes a value from the set under a key, dropping the set once it is empty
+     */
+    private static <K, V> void removeFrom(ConcurrentMap<K, Set<V>> map, K key, V value) {
+        map.computeIfPresent(key, (id, current) -> {
+            current.remove(value);
+            return (current.isEmpty() ? null : current);
+        });
+    }
+}
@@ -0,0 +1,7 @@
+package service;
+
+public class EngineBusyException extends Exception {
+    public EngineBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,140 @@
+package service;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import responses.EngineStatsResponse;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs engine searches on a fixed pool of threads with a bounded queue, so engine work never
+ * runs on the threads that handle HTTP requests or WebSocket messages. Requests that arrive while
+ * the queue is full are rejected instead of waiting.
+ */
+public class EngineService implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    public static final long DEFAULT_TIME_MILLIS = 1000;
+    public static final long MAX_TIME_MILLIS = 10000;
+
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int queueCapacity;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder searchNanos = new LongAdder();
+
+    public EngineService() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param threads the number of searches to run at once
+     * @param queueCapacity the number of searches that may wait for a free thread
+     */
+    public EngineService(int threads, int queueCapacity) {
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+
+        var threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    var thread = new Thread(runnable, "engine-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues a search for the best move of the team to move. The position is copied before this
+     * returns, so the game may change while the search runs, but the search itself and its
+     * tables are only built on the engine thread that runs it.
+     *
+     * @param game the game to search
+     * @param timeMillis how long to search, or null for the default; capped at
+     *        {@link #MAX_TIME_MILLIS}
+     * @return the result of the search, completed on an engine thread; cancelling it stops the
+     *         search, or skips it if it has not started, freeing its thread
+     * @throws EngineBusyException if every thread is busy and the queue is full
+     */
+    public CompletableFuture<SearchResult> findBestMove(ChessGame game, Long timeMillis)
+            throws EngineBusyException {
+        long budget = (timeMillis == null ? DEFAULT_TIME_MILLIS
+                : Math.max(1, Math.min(timeMillis, MAX_TIME_MILLIS)));
+        ChessBoard board = game.getBoard().clone();
+        ChessGame.TeamColor teamTurn = game.getTeamTurn();
+        var running = new AtomicReference<Search>();
+        var future = new CompletableFuture<SearchResult>();
+        long queuedAt = System.nanoTime();
+
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                var search = new Search(board, teamTurn);
+                running.set(search);
+                // a cancel that came in before the search was set did not see it to stop it
+                if (future.isDone()) {
+                    return;
+                }
+                long startedAt = System.nanoTime();
+                queueNanos.add(startedAt - queuedAt);
+                SearchResult result = null;
+                RuntimeException failure = null;
+                try {
+                    result = search.search(SearchLimits.time(budget));
+                } catch (RuntimeException ex) {
+                    failure = ex;
+                }
+
+                // record the search before completing so callers see it in the stats
+                searchNanos.add(System.nanoTime() - startedAt);
+                completed.increment();
+                if (failure != null) {
+                    future.completeExceptionally(failure);
+                } else {
+                    future.complete(result);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new EngineBusyException("the engine is busy, try again later");
+        }
+        future.whenComplete((result, ex) -> {
+            Search search = running.get();
+            if (future.isCancelled() && search != null) {
+                search.stop();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return the current load on the engine and totals since it started
+     */
+    public EngineStatsResponse getStats() {
+        long done = completed.sum();
+        return new EngineStatsResponse(threads, executor.getActiveCount(),
+                executor.getQueue().size(), queueCapacity, done, rejected.sum(),
+                (done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(queueNanos.sum() / done)),
+                (done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(searchNanos.sum() / done)));
+    }
+
+    /**
+     * Stops the engine threads, abandoning any queued searches
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,254 @@
+package dataaccess;
+
+import model.*;
+import service.AuthorizationException;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachingDataAccessTests {
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private MemoryDataAccess store;
+    private CachingDataAccess dataAccess;
+
+    @BeforeEach
+    public void setup() throws AuthorizationException, DataAccessException {
+        store = new MemoryDataAccess() {
+            @Override
+            public GameData findGameData(Integer gameID) {
+                reads.incrementAndGet();
+                return super.findGameData(gameID);
+            }
+        };
+        store.createGame(new GameData(1, null, null, "game", new ChessGame()));
+        // a long flush interval, so only the tests flush
+        dataAccess = new CachingDataAccess(store, 60000, 60000);
+    }
+
+    @AfterEach
+    public void teardown() throws DataAccessException {
+        dataAccess.close();
+    }
+
+    @Test
+    public void gamesAreReadOnce() throws DataAccessException {
+        dataAccess.findGameData(1);
+        dataAccess.findGameData(1);
+        dataAccess.findGameData(1);
+
+        Assertions.assertEquals(1, reads.get());
+        Assertions.assertEquals(1, dataAccess.cachedGames());
+        Assertions.assertNull(dataAccess.findGameData(2));
+    }
+
+    @Test
+    public void updatesAreWrittenOnFlush()
+            throws AuthorizationException, DataAccessException, InvalidMoveException {
+        var game = dataAccess.findGameData(1);
+        game.game().makeMove(firstMove());
+        dataAccess.updateGame(game.updateUsername(ChessGame.TeamColor.WHITE, "user"));
+
+        Assertions.assertEquals(1, dataAccess.pendingGames());
+        Assertions.assertNull(store.findGameData(1).whiteUsername());
+        Assertions.assertEquals("user", dataAccess.findGameData(1).whiteUsername());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK,
+                dataAccess.findGameData(1).game().getTeamTurn());
+
+        dataAccess.flush();
+
+        Assertions.assertEquals(0, dataAccess.pendingGames());
+        Assertions.assertEquals("user", store.findGameData(1).whiteUsername());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK,
+                store.findGameData(1).game().getTeamTurn());
+    }
+
+    @Test
+    public void returnedGamesAreCopies() throws DataAccessException, InvalidMoveException {
+        var game = dataAccess.findGameData(1);
+        game.game().makeMove(firstMove());
+
+        Assertions.assertEquals(new ChessGame(), dataAccess.findGameData(1).game());
+        Assertions.assertEquals(0, dataAccess.pendingGames());
+    }
+
+    @Test
+    public void closeWritesPendingGames()
+            throws AuthorizationException, DataAccessException, InvalidMoveException {
+        var game = dataAccess.findGameData(1);
+        game.game().makeMove(firstMove());
+        dataAccess.updateGame(game);
+
+        dataAccess.close();
+
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK,
+                store.findGameData(1).game().getTeamTurn());
+    }
+
+    @Test
+    public void listGamesShowsPendingUpdates()
+            throws AuthorizationException, DataAccessException {
+        var game = dataAccess.findGameData(1);
+        dataAccess.updateGame(game.updateUsername(ChessGame.TeamColor.BLACK, "user"));
+
+        var games = dataAccess.listGames();
+
+        Assertions.assertEquals(1, games.size());
+        Assertions.assertEquals("user", games.getFirst().blackUsername());
+    }
+
+    @Test
+    public void listedGamesAreCopies() throws DataAccessException, InvalidMoveException {
+        dataAccess.findGameData(1);
+
+        dataAccess.listGames().getFirst().game().makeMove(firstMove());
+
+        Assertions.assertEquals(new ChessGame(), dataAccess.listGames().getFirst().game());
+        Assertions.assertEquals(new ChessGame(), dataAccess.findGameData(1).game());
+    }
+
+    @Test
+    public void clearDropsPendingGames() throws AuthorizationException, DataAccessException {
+        dataAccess.updateGame(dataAccess.findGameData(1));
+
+        dataAccess.clearGameDAO();
+
+        Assertions.assertEquals(0, dataAccess.pendingGames());
+        Assertions.assertTrue(dataAccess.isGameDataEmpty());
+        Assertions.assertNull(dataAccess.findGameData(1));
+    }
+
+    @Test
+    public void updateDuringFlushStaysPending() throws Exception {
+        var writing = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var blockingStore = new MemoryDataAccess() {
+            @Override
+            public void updateGames(Collection<GameData> data)
+                    throws AuthorizationException, DataAccessException {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                super.updateGames(data);
+            }
+        };
+        blockingStore.createGame(new GameData(1, null, null, "game", new ChessGame()));
+
+        try (var blockingCache = new CachingDataAccess(blockingStore, 60000, 60000)) {
+            blockingCache.updateGame(blockingCache.findGameData(1));
+            var flush = CompletableFuture.runAsync(() -> {
+                try {
+                    blockingCache.flush();
+                } catch (Exception ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            Assertions.assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+            // the same board, so the resigned game equals the snapshot being written
+            var resigned = blockingCache.findGameData(1);
+            resigned.game().setPlayable(false);
+            blockingCache.updateGame(resigned);
+            release.countDown();
+            flush.get(5, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(1, blockingCache.pendingGames());
+            Assertions.assertTrue(blockingStore.findGameData(1).game().getPlayable());
+
+            blockingCache.flush();
+            Assertions.assertEquals(0, blockingCache.pendingGames());
+            Assertions.assertFalse(blockingStore.findGameData(1).game().getPlayable());
+        }
+    }
+
+    @Test
+    public void invalidUpdateIsRefused() throws AuthorizationException, DataAccessException {
+        var validatingStore = new MemoryDataAccess() {
+            @Override
+            public void validateGame(GameData data) throws AuthorizationException {
+                if (data.whiteUsername() != null && data.whiteUsername().contains(";")) {
+                    throw new AuthorizationException("Invalid username");
+                }
+            }
+        };
+        validatingStore.createGame(new GameData(1, null, null, "game", new ChessGame()));
+
+        try (var validatingCache = new CachingDataAccess(validatingStore, 60000, 60000)) {
+            var game = validatingCache.findGameData(1);
+            Assertions.assertThrows(AuthorizationException.class, () -> validatingCache
+                    .updateGame(game.updateUsername(ChessGame.TeamColor.WHITE, "bad;")));
+
+            Assertions.assertEquals(0, validatingCache.pendingGames());
+            Assertions.assertNull(validatingCache.findGameData(1).whiteUsername());
+        }
+    }
+
+    @Test
+    public void failedBatchIsWrittenGameByGame()
+            throws AuthorizationException, DataAccessException, InvalidMoveException {
+        var written = new ArrayList<Integer>();
+        var rejected = new AtomicBoolean(false);
+        var failingStore = new MemoryDataAccess() {
+            @Override
+            public void validateGame(GameData data) throws AuthorizationException {
+                if (rejected.get() && data.gameID() == 2) {
+                    throw new AuthorizationException("Invalid username");
+                }
+            }
+
+            @Override
+            public void updateGame(GameData data) {
+                written.add(data.gameID());
+                super.updateGame(data);
+            }
+
+            @Override
+            public void updateGames(Collection<GameData> data)
+                    throws AuthorizationException, DataAccessException {
+                for (var gameData : data) {
+                    validateGame(gameData);
+                }
+                super.updateGames(data);
+            }
+        };
+        for (int gameID = 1; gameID <= 2; gameID++) {
+            failingStore.createGame(new GameData(gameID, null, null, "game", new ChessGame()));
+        }
+
+        try (var failingCache = new CachingDataAccess(failingStore, 60000, 60000)) {
+            var first = failingCache.findGameData(1);
+            first.game().makeMove(firstMove());
+            failingCache.updateGame(first);
+            failingCache.updateGame(failingCache.findGameData(2));
+            // the store starts rejecting game 2 after it was queued
+            rejected.set(true);
+
+            failingCache.flush();
+
+            Assertions.assertEquals(List.of(1), written);
+            Assertions.assertEquals(0, failingCache.pendingGames());
+            Assertions.assertEquals(ChessGame.TeamColor.BLACK,
+                    failingStore.findGameData(1).game().getTeamTurn());
+        }
+    }
+
+    private ChessMove firstMove() {
+        return new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+    }
+}
@@ -0,0 +1,57 @@
+package dataaccess;
+
+import chess.ChessGame;
+import serializer.GameCodec;
+import serializer.Serializer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GameMigrationTests {
+
+    @Test
+    public void migrateBaselineRow() {
+        // a game column in the format of the original squares-array ChessBoard, whose rows start
+        // at row 1; SerializerTests reads a complete one
+        String json = """
+                {"board":{"boardLength":8,"squares":[
+                [null,null,null,null,{"pieceColor":"WHITE","type":"KING"},null,null,
+                {"pieceColor":"WHITE","type":"ROOK"}],
+                [null,null,null,null,null,null,null,null],
+                [null,null,null,null,null,null,null,null],
+                [null,null,null,null,null,null,null,null],
+                [null,null,null,null,null,null,null,null],
+                [null,null,null,null,null,null,null,null],
+                [null,null,null,null,null,null,null,null],
+                [null,null,null,null,{"pieceColor":"BLACK","type":"KING"},null,null,null]]},
+                "teamTurn":"BLACK","playable":true}""";
+
+        byte[] migrated = MySqlDataAccess.migrateGame(1, json);
+
+        Assertions.assertTrue(GameCodec.isEncoded(migrated));
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K2R b K - 0 1",
+                GameCodec.decode(migrated).toFen());
+    }
+
+    @Test
+    public void unreadableRowIsKeptAsJson() {
+        String[] rows = {"{\"board\":{\"boardLength\":8},\"teamTurn\":\"WHITE\"}",
+            "{\"board\":{\"placement\":\"8/8/8/8/8/8/8/8\"},\"teamTurn\":\"WHITE\"}",
+            "{\"teamTurn\":\"WHITE\"", "null"};
+
+        for (String json : rows) {
+            Assertions.assertArrayEquals(json.getBytes(StandardCharsets.UTF_8),
+                    MySqlDataAccess.migrateGame(1, json), json);
+        }
+    }
+
+    @Test
+    public void readJsonGameRejectsMissingKings() {
+        String json = "{\"board\":{\"placement\":\"4k3/8/8/8/8/8/8/8\"},\"teamTurn\":\"BLACK\"}";
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> MySqlDataAccess.readJsonGame(json));
+        Assertions.assertEquals(new ChessGame(),
+                MySqlDataAccess.readJsonGame(new Serializer().toJson(new ChessGame())));
+    }
+}
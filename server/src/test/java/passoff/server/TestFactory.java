@@ -1,6 +1,7 @@
 package passoff.server;
 
 import com.google.gson.GsonBuilder;
+import serializer.ChessAdapters;
 
 public class TestFactory {
 
@@ -25,6 +26,7 @@ public class TestFactory {
          */
         GsonBuilder builder = new GsonBuilder();
         // builder.registerTypeAdapter(ChessMove.class, /*type adapter or json serializer */);
+        ChessAdapters.register(builder);
         return builder;
     }
 
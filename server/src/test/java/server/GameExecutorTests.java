@@ -0,0 +1,99 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GameExecutorTests {
+
+    private final GameExecutor executor = new GameExecutor();
+
+    @AfterEach
+    public void teardown() {
+        executor.close();
+    }
+
+    @Test
+    public void sameGameRunsInOrder() throws Exception {
+        var running = new AtomicInteger();
+        var overlaps = new AtomicInteger();
+        List<Integer> order = new ArrayList<>();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            int task = i;
+            results.add(executor.submit(1, () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                order.add(task);
+                running.decrementAndGet();
+            }));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(0, overlaps.get());
+        for (int i = 0; i < order.size(); i++) {
+            Assertions.assertEquals(i, order.get(i));
+        }
+        Assertions.assertEquals(200, order.size());
+    }
+
+    @Test
+    public void differentGamesRunInParallel() throws Exception {
+        var barrier = new CyclicBarrier(2);
+
+        var first = executor.submit(1, () -> await(barrier));
+        var second = executor.submit(2, () -> await(barrier));
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        Assertions.assertFalse(barrier.isBroken());
+    }
+
+    @Test
+    public void failedTaskDoesNotBlockGame() throws Exception {
+        var ran = new CountDownLatch(1);
+
+        var failed = executor.submit(1, () -> {
+            throw new IllegalStateException("bad command");
+        });
+        executor.submit(1, ran::countDown).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(failed.isCompletedExceptionally());
+        Assertions.assertEquals(0, ran.getCount());
+    }
+
+    @Test
+    public void idleGamesAreDropped() throws Exception {
+        var release = new CountDownLatch(1);
+
+        var blocked = executor.submit(1, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        executor.submit(2, () -> {}).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(1, executor.pendingGames());
+
+        release.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(0, executor.pendingGames());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(2, TimeUnit.SECONDS);
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+}
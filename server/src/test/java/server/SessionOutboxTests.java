@@ -0,0 +1,124 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SessionOutboxTests {
+
+    /**
+     * Records frames and holds each write open until the test finishes it
+     */
+    private static class FakeConnection implements SessionOutbox.Connection {
+        private final List<String> sent = new ArrayList<>();
+        private WriteCallback pending;
+        private int closeStatus;
+
+        @Override
+        public void send(String frame, WriteCallback callback) {
+            Assertions.assertNull(pending, "a write started before the last one finished");
+            sent.add(frame);
+            pending = callback;
+        }
+
+        @Override
+        public void close(int statusCode, String reason) {
+            closeStatus = statusCode;
+        }
+
+        void finishWrite() {
+            var callback = pending;
+            pending = null;
+            callback.writeSuccess();
+        }
+    }
+
+    @Test
+    public void framesAreWrittenInOrder() {
+        var connection = new FakeConnection();
+        var outbox = new SessionOutbox(connection, 8);
+
+        outbox.send("a");
+        outbox.send("b");
+        outbox.send("c");
+        Assertions.assertEquals(List.of("a"), connection.sent);
+        Assertions.assertEquals(2, outbox.queued());
+
+        connection.finishWrite();
+        connection.finishWrite();
+        connection.finishWrite();
+
+        Assertions.assertEquals(List.of("a", "b", "c"), connection.sent);
+        Assertions.assertEquals(0, outbox.queued());
+        Assertions.assertNull(connection.pending);
+    }
+
+    @Test
+    public void newerGameStateReplacesQueuedState() {
+        var connection = new FakeConnection();
+        var outbox = new SessionOutbox(connection, 8);
+
+        outbox.send("first");
+        outbox.sendLatest(1, "game 1 move 1");
+        outbox.send("moved");
+        outbox.sendLatest(2, "game 2 move 1");
+        outbox.sendLatest(1, "game 1 move 2");
+
+        connection.finishWrite();
+        connection.finishWrite();
+        connection.finishWrite();
+        connection.finishWrite();
+
+        Assertions.assertEquals(List.of("first", "game 1 move 2", "moved", "game 2 move 1"),
+                connection.sent);
+    }
+
+    @Test
+    public void stateBeingWrittenIsNotReplaced() {
+        var connection = new FakeConnection();
+        var outbox = new SessionOutbox(connection, 8);
+
+        outbox.sendLatest(1, "move 1");
+        outbox.sendLatest(1, "move 2");
+        connection.finishWrite();
+        connection.finishWrite();
+
+        Assertions.assertEquals(List.of("move 1", "move 2"), connection.sent);
+    }
+
+    @Test
+    public void slowSessionIsClosed() {
+        var connection = new FakeConnection();
+        var outbox = new SessionOutbox(connection, 2);
+
+        Assertions.assertTrue(outbox.send("a"));
+        Assertions.assertTrue(outbox.send("b"));
+        Assertions.assertTrue(outbox.send("c"));
+        Assertions.assertFalse(outbox.send("d"));
+
+        Assertions.assertEquals(StatusCode.POLICY_VIOLATION, connection.closeStatus);
+        Assertions.assertTrue(outbox.isClosed());
+        Assertions.assertEquals(0, outbox.queued());
+
+        connection.finishWrite();
+        Assertions.assertEquals(List.of("a"), connection.sent);
+        Assertions.assertFalse(outbox.send("e"));
+    }
+
+    @Test
+    public void failedWriteClosesOutbox() {
+        var connection = new FakeConnection();
+        var outbox = new SessionOutbox(connection, 8);
+
+        outbox.send("a");
+        outbox.send("b");
+        connection.pending.writeFailed(new IllegalStateException("closed"));
+
+        Assertions.assertTrue(outbox.isClosed());
+        Assertions.assertFalse(outbox.send("c"));
+        Assertions.assertEquals(List.of("a"), connection.sent);
+    }
+}
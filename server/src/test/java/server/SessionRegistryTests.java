@@ -0,0 +1,105 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SessionRegistryTests {
+
+    @Test
+    public void joinAndLeave() {
+        var registry = new SessionRegistry<String>();
+
+        registry.join(1, "alice");
+        Set<String> subscribers = registry.join(1, "bob");
+        registry.join(2, "alice");
+
+        Assertions.assertEquals(Set.of("alice", "bob"), subscribers);
+        Assertions.assertTrue(registry.isSubscribed(2, "alice"));
+        Assertions.assertEquals(2, registry.gameCount("alice"));
+
+        registry.leave(1, "alice");
+
+        Assertions.assertEquals(Set.of("bob"), registry.subscribers(1));
+        Assertions.assertFalse(registry.isSubscribed(1, "alice"));
+        Assertions.assertEquals(1, registry.gameCount("alice"));
+    }
+
+    @Test
+    public void removeSessionLeavesEveryGame() {
+        var registry = new SessionRegistry<String>();
+        registry.join(1, "alice");
+        registry.join(2, "alice");
+        registry.join(2, "bob");
+
+        Assertions.assertTrue(registry.removeSession("alice"));
+        Assertions.assertFalse(registry.removeSession("alice"));
+
+        Assertions.assertTrue(registry.subscribers(1).isEmpty());
+        Assertions.assertEquals(Set.of("bob"), registry.subscribers(2));
+        Assertions.assertEquals(0, registry.gameCount("alice"));
+    }
+
+    @Test
+    public void removeGameDropsSubscribers() {
+        var registry = new SessionRegistry<String>();
+        registry.join(1, "alice");
+        registry.join(1, "bob");
+        registry.join(2, "bob");
+
+        registry.removeGame(1);
+
+        Assertions.assertTrue(registry.subscribers(1).isEmpty());
+        Assertions.assertEquals(0, registry.gameCount("alice"));
+        Assertions.assertEquals(1, registry.gameCount("bob"));
+    }
+
+    @Test
+    public void concurrentJoinAndLeave() throws Exception {
+        var registry = new SessionRegistry<String>();
+        int threads = 8;
+        int rounds = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        var start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                String session = "session" + thread;
+                int finalGame = thread % 2;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < rounds; round++) {
+                        int gameID = round % 4;
+                        registry.join(gameID, session);
+                        Assertions.assertTrue(registry.isSubscribed(gameID, session));
+                        registry.leave(gameID, session);
+                    }
+                    registry.join(finalGame, session);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(threads / 2, registry.subscribers(0).size());
+        Assertions.assertEquals(threads / 2, registry.subscribers(1).size());
+        Assertions.assertTrue(registry.subscribers(2).isEmpty());
+        Assertions.assertTrue(registry.subscribers(3).isEmpty());
+        for (int thread = 0; thread < threads; thread++) {
+            Assertions.assertEquals(1, registry.gameCount("session" + thread));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.engine.SearchResult;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EngineServiceTests {
+
+    private EngineService engineService;
+
+    @AfterEach
+    public void teardown() {
+        engineService.close();
+    }
+
+    @Test
+    public void findBestMoveSuccess() throws Exception {
+        engineService = new EngineService(1, 1);
+        var game = new ChessGame();
+
+        SearchResult result = engineService.findBestMove(game, 100L).get(5, TimeUnit.SECONDS);
+        ChessMove move = result.bestMove();
+
+        Assertions.assertNotNull(move);
+        Assertions.assertTrue(game.validMoves(move.getStartPosition()).contains(move));
+        Assertions.assertEquals(1, engineService.getStats().completedSearches());
+    }
+
+    @Test
+    public void findBestMoveLeavesGameUnchanged() throws Exception {
+        engineService = new EngineService(1, 1);
+        var game = new ChessGame();
+        var original = new ChessGame();
+
+        engineService.findBestMove(game, 100L).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(original, game);
+    }
+
+    @Test
+    public void findBestMoveQueueFull() throws Exception {
+        engineService = new EngineService(1, 1);
+        var game = new ChessGame();
+
+        CompletableFuture<SearchResult> running = engineService.findBestMove(game, 500L);
+        CompletableFuture<SearchResult> queued = engineService.findBestMove(game, 500L);
+        Assertions.assertThrows(EngineBusyException.class,
+                () -> engineService.findBestMove(game, 500L));
+        Assertions.assertEquals(1, engineService.getStats().rejectedSearches());
+
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(2, engineService.getStats().completedSearches());
+    }
+
+    @Test
+    public void queuedSearchUsesPositionAtSubmit() throws Exception {
+        engineService = new EngineService(1, 1);
+        var game = new ChessGame();
+        var original = new ChessGame();
+
+        CompletableFuture<SearchResult> running = engineService.findBestMove(game, 200L);
+        CompletableFuture<SearchResult> queued = engineService.findBestMove(game, 100L);
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        running.get(5, TimeUnit.SECONDS);
+        ChessMove move = queued.get(5, TimeUnit.SECONDS).bestMove();
+        Assertions.assertTrue(original.validMoves(move.getStartPosition()).contains(move));
+    }
+
+    @Test
+    public void cancelFreesEngineThread() throws Exception {
+        engineService = new EngineService(1, 1);
+        var game = new ChessGame();
+
+        CompletableFuture<SearchResult> abandoned =
+                engineService.findBestMove(game, EngineService.MAX_TIME_MILLIS);
+        Thread.sleep(100);
+        abandoned.cancel(true);
+
+        long start = System.nanoTime();
+        engineService.findBestMove(game, 100L).get(5, TimeUnit.SECONDS);
+        Assertions.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+}
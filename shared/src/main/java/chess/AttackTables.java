@@ -0,0 +1,206 @@
+package chess;
+
+/**
+ * Precomputed attack tables for every square on the board. Squares are indexed from 0 (row 1,
+ * column 1) to 63 (row 8, column 8), and attack sets are bitboards over those indices.
+ */
+public final class AttackTables {
+    public static final int NORTH = 0;
+    public static final int SOUTH = 1;
+    public static final int EAST = 2;
+    public static final int WEST = 3;
+    public static final int NORTH_EAST = 4;
+    public static final int NORTH_WEST = 5;
+    public static final int SOUTH_EAST = 6;
+    public static final int SOUTH_WEST = 7;
+
+    private static final int[][] DIRECTIONS =
+            {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] KNIGHT_OFFSETS =
+            {{2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1}};
+    private static final int[][] KING_OFFSETS =
+            {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}};
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final int[][][] RAYS = new int[64][DIRECTIONS.length][];
+    private static final long[][] RAY_MASKS = new long[64][DIRECTIONS.length];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8;
+            int col = square % 8;
+
+            KNIGHT_ATTACKS[square] = leaperAttacks(row, col, KNIGHT_OFFSETS);
+            KING_ATTACKS[square] = leaperAttacks(row, col, KING_OFFSETS);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] =
+                    leaperAttacks(row, col, new int[][] {{1, 1}, {1, -1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] =
+                    leaperAttacks(row, col, new int[][] {{-1, 1}, {-1, -1}});
+
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                int length = rayLength(row, col, DIRECTIONS[direction]);
+                int[] ray = new int[length];
+                for (int i = 0; i < length; i++) {
+                    ray[i] = (row + (i + 1) * DIRECTIONS[direction][0]) * 8 + col
+                            + (i + 1) * DIRECTIONS[direction][1];
+                    RAY_MASKS[square][direction] |= 1L << ray[i];
+                }
+                RAYS[square][direction] = ray;
+            }
+        }
+    }
+
+    private AttackTables() {}
+
+    /**
+     * @param square the square a knight stands on
+     * @return the squares the knight attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * @param square the square a king stands on
+     * @return the squares the king attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * @param teamColor the team the pawn belongs to
+     * @param square the square the pawn stands on
+     * @return the squares the pawn attacks diagonally
+     */
+    public static long pawnAttacks(ChessGame.TeamColor teamColor, int square) {
+        return PAWN_ATTACKS[teamColor.ordinal()][square];
+    }
+
+    /**
+     * @param square the square to start from
+     * @param direction one of the direction constants in this class
+     * @return the squares from the given square to the edge of the board, nearest first
+     */
+    public static int[] ray(int square, int direction) {
+        return RAYS[square][direction];
+    }
+
+    /**
+     * @param square the square a rook stands on
+     * @param occupied the occupied squares, which block the rook
+     * @return the squares the rook attacks, up to and including the first piece in each direction
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return slidingAttacks(square, NORTH, NORTH_EAST, occupied);
+    }
+
+    /**
+     * @param square the square a bishop stands on
+     * @param occupied the occupied squares, which block the bishop
+     * @return the squares the bishop attacks, up to and including the first piece in each
+     *         direction
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return slidingAttacks(square, NORTH_EAST, DIRECTIONS.length, occupied);
+    }
+
+    /**
+     * Determines if any piece of the attacking team could capture on the given square. Pins are
+     * ignored, so a pinned piece still attacks the squares it covers.
+     *
+     * @param board the board to look at
+     * @param square the square to test
+     * @param attacker the team that may be attacking
+     * @return True if the square is attacked by the given team
+     */
+    public static boolean isSquareAttacked(ChessBoard board, int square,
+            ChessGame.TeamColor attacker) {
+        if ((KNIGHT_ATTACKS[square]
+                & board.getPieceBitboard(attacker, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+
+        if ((KING_ATTACKS[square]
+                & board.getPieceBitboard(attacker, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+
+        // a pawn attacks this square exactly when an enemy pawn here would attack the pawn
+        int defender = 1 - attacker.ordinal();
+        if ((PAWN_ATTACKS[defender][square]
+                & board.getPieceBitboard(attacker, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+
+        long queens = board.getPieceBitboard(attacker, ChessPiece.PieceType.QUEEN);
+        long straightSliders =
+                queens | board.getPieceBitboard(attacker, ChessPiece.PieceType.ROOK);
+        long diagonalSliders =
+                queens | board.getPieceBitboard(attacker, ChessPiece.PieceType.BISHOP);
+        long occupied = board.getOccupiedBitboard();
+
+        return isRayAttacked(square, NORTH, NORTH_EAST, straightSliders, occupied)
+                || isRayAttacked(square, NORTH_EAST, DIRECTIONS.length, diagonalSliders, occupied);
+    }
+
+    private static boolean isRayAttacked(int square, int firstDirection, int endDirection,
+            long sliders, long occupied) {
+        for (int direction = firstDirection; direction < endDirection; direction++) {
+            if ((RAY_MASKS[square][direction] & sliders) == 0) {
+                continue;
+            }
+
+            for (int target : RAYS[square][direction]) {
+                long mask = 1L << target;
+                if ((occupied & mask) != 0) {
+                    if ((sliders & mask) != 0) {
+                        return true;
+                    }
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long slidingAttacks(int square, int firstDirection, int endDirection,
+            long occupied) {
+        long attacks = 0;
+        for (int direction = firstDirection; direction < endDirection; direction++) {
+            for (int target : RAYS[square][direction]) {
+                attacks |= 1L << target;
+                if ((occupied & 1L << target) != 0) {
+                    break;
+                }
+            }
+        }
+        return attacks;
+    }
+
+    private static long leaperAttacks(int row, int col, int[][] offsets) {
+        long attacks = 0;
+        for (int[] offset : offsets) {
+            int newRow = row + offset[0];
+            int newCol = col + offset[1];
+            if (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
+                attacks |= 1L << (newRow * 8 + newCol);
+            }
+        }
+        return attacks;
+    }
+
+    private static int rayLength(int row, int col, int[] direction) {
+        int length = 0;
+        int newRow = row + direction[0];
+        int newCol = col + direction[1];
+        while (newRow >= 0 && newRow < 8 && newCol >= 0 && newCol < 8) {
+            length++;
+            newRow += direction[0];
+            newCol += direction[1];
+        }
+        return length;
+    }
+}
@@ -6,14 +6,80 @@ import java.util.Map;
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * The board is stored as twelve 64-bit piece bitboards (one per team and piece type) plus a
+ * bitboard of occupied squares per team. Square indices run from 0 (row 1, column 1) to 63 (row
+ * 8, column 8). A Zobrist key of the piece placement is kept up to date as pieces come and go.
+ * <p>
+ * The board also holds the castling rights and en passant square, which {@link #makeMove(int)}
+ * updates in constant time and {@link #unmakeMove()} restores. They decide which moves are
+ * available but are not part of the piece placement, so board equality ignores them.
+ * <p>
  * Note: You can add to this class, but you may not alter signature of the existing methods.
  */
 public class ChessBoard implements Cloneable {
-    private final int boardLength = 8;
-    private ChessPiece squares[][];
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+    public static final int NO_SQUARE = -1;
+
+    private static final int BOARD_LENGTH = 8;
+    private static final int PIECE_TYPES = ChessPiece.PieceType.values().length;
+
+    private static final int UNDO_TO_SHIFT = 6;
+    private static final int UNDO_MOVED_SHIFT = 12;
+    private static final int UNDO_PLACED_SHIFT = 16;
+    private static final int UNDO_CAPTURED_SHIFT = 20;
+    private static final int UNDO_CASTLING_SHIFT = 24;
+    private static final int UNDO_EN_PASSANT_SHIFT = 28;
+    private static final int UNDO_KIND_SHIFT = 35;
+    private static final int NORMAL_MOVE = 0;
+    private static final int CASTLING_MOVE = 1;
+    private static final int EN_PASSANT_MOVE = 2;
+    private static final int KING = ChessPiece.PieceType.KING.ordinal();
+    private static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+    private static final int[] CASTLING_MASKS = createCastlingMasks();
+    private static final long SQUARE_MASK = 0x3F;
+    private static final long PIECE_MASK = 0xF;
+    private static final long CASTLING_MASK = 0xF;
+    private static final long EN_PASSANT_MASK = 0x7F;
+    private static final long KIND_MASK = 0x3;
+
+    private long[] pieceBoards;
+    private long whitePieces;
+    private long blackPieces;
+    private int castlingRights;
+    private int enPassantSquare = NO_SQUARE;
+    private transient long[] undoStack;
+    private transient int undoCount;
+    private transient long key;
+    private transient boolean keyValid;
+    private transient PieceListener pieceListener;
 
     public ChessBoard() {
-        squares = new ChessPiece[boardLength][boardLength];
+        pieceBoards = new long[2 * PIECE_TYPES];
+    }
+
+    /**
+     * Receives every piece placed on or lifted off the board, including the steps of making and
+     * unmaking moves, so derived state can be kept up to date without rescanning the board
+     */
+    public interface PieceListener {
+        void pieceAdded(ChessGame.TeamColor teamColor, ChessPiece.PieceType type, int square);
+
+        void pieceRemoved(ChessGame.TeamColor teamColor, ChessPiece.PieceType type, int square);
+    }
+
+    /**
+     * Sets the listener told about every change to the board. Copies of the board do not keep
+     * the listener.
+     *
+     * @param pieceListener the listener, or null to stop listening
+     */
+    public void setPieceListener(PieceListener pieceListener) {
+        this.pieceListener = pieceListener;
     }
 
     /**
@@ -21,18 +87,24 @@ public class ChessBoard implements Cloneable {
      *
      * @param position where to add the piece to
      * @param piece the piece to add
+     * @throws IllegalArgumentException if the position is off the board
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = piece;
+        int square = squareOf(position);
+        clearSquare(square);
+        if (piece != null) {
+            setSquare(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
      * Removes a piece from the chessboard
      *
      * @param position whice position to remove
+     * @throws IllegalArgumentException if the position is off the board
      */
     public void removePiece(ChessPosition position) {
-        squares[position.getRow() - 1][position.getColumn() - 1] = null;
+        clearSquare(squareOf(position));
     }
 
     /**
@@ -40,16 +112,284 @@ public class ChessBoard implements Cloneable {
      *
      * @param position The position to get the piece from
      * @return Either the piece at the position, or null if no piece is at that position
+     * @throws IllegalArgumentException if the position is off the board
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+        return pieceAt(squareOf(position));
+    }
+
+    /**
+     * Gets the square of a position, refusing positions off the board, whose square numbers
+     * would otherwise land on a real square
+     */
+    private static int squareOf(ChessPosition position) {
+        if (!position.inBounds()) {
+            throw new IllegalArgumentException("Position is off the board: " + position);
+        }
+        return position.getSquare();
+    }
+
+    /**
+     * Plays a move on this board in place and records how to take it back. Any piece on the end
+     * position is captured, and a pawn is replaced by the move's promotion piece if it has one.
+     * The move is not checked for legality.
+     *
+     * @param move the move to play
+     * @throws IllegalArgumentException if there is no piece on the move's start position
+     */
+    public void makeMove(ChessMove move) {
+        makeMove(PackedMove.fromChessMove(move));
+    }
+
+    /**
+     * Plays a packed move (see {@link PackedMove}) on this board in place and records how to take
+     * it back. A king moving two columns castles, taking its rook along, and a pawn moving onto
+     * the en passant square captures the pawn beside it. The move is not checked for legality.
+     *
+     * @param move the packed move to play
+     * @throws IllegalArgumentException if there is no piece on the move's start square
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int moved = pieceIndexAt(from);
+        if (moved < 0) {
+            throw new IllegalArgumentException(
+                    "There is no piece to move at " + ChessPosition.fromSquare(from));
+        }
+
+        int movedType = moved % PIECE_TYPES;
+        int kind = NORMAL_MOVE;
+        int captureSquare = to;
+        if (movedType == PAWN && to == enPassantSquare && (from & 7) != (to & 7)) {
+            kind = EN_PASSANT_MOVE;
+            captureSquare = enPassantCaptureSquare(from, to);
+        } else if (movedType == KING && Math.abs(to - from) == 2) {
+            kind = CASTLING_MOVE;
+        }
+
+        int captured = pieceIndexAt(captureSquare);
+        int placed = moved;
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            placed = pieceIndex(ChessPiece.fromIndex(moved).getTeamColor(), promotion);
+        }
+
+        pushUndo(from | (long) to << UNDO_TO_SHIFT | (long) moved << UNDO_MOVED_SHIFT
+                | (long) placed << UNDO_PLACED_SHIFT
+                | (long) (captured + 1) << UNDO_CAPTURED_SHIFT
+                | (long) castlingRights << UNDO_CASTLING_SHIFT
+                | (long) (enPassantSquare + 1) << UNDO_EN_PASSANT_SHIFT
+                | (long) kind << UNDO_KIND_SHIFT);
+
+        if (captured >= 0) {
+            clearSquare(captureSquare, captured);
+        }
+        clearSquare(from, moved);
+        setSquare(to, placed);
+        if (kind == CASTLING_MOVE) {
+            moveCastlingRook(from, to, false);
+        }
+
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        enPassantSquare = NO_SQUARE;
+        if (movedType == PAWN && Math.abs(to - from) == 16) {
+            setEnPassantAfterDoublePush(moved, from, to);
+        }
+    }
+
+    /**
+     * Takes back the most recent move played with {@link #makeMove(int)}, restoring any
+     * captured piece, undoing any promotion or castling, and restoring the castling rights and
+     * en passant square from before the move
+     *
+     * @throws IllegalStateException if there is no move to take back
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("There is no move to take back");
+        }
+
+        long record = undoStack[--undoCount];
+        int from = (int) (record & SQUARE_MASK);
+        int to = (int) (record >>> UNDO_TO_SHIFT & SQUARE_MASK);
+        int moved = (int) (record >>> UNDO_MOVED_SHIFT & PIECE_MASK);
+        int placed = (int) (record >>> UNDO_PLACED_SHIFT & PIECE_MASK);
+        int captured = (int) (record >>> UNDO_CAPTURED_SHIFT & PIECE_MASK) - 1;
+        int kind = (int) (record >>> UNDO_KIND_SHIFT & KIND_MASK);
+
+        if (kind == CASTLING_MOVE) {
+            moveCastlingRook(from, to, true);
+        }
+        clearSquare(to, placed);
+        setSquare(from, moved);
+        if (captured >= 0) {
+            setSquare(kind == EN_PASSANT_MOVE ? enPassantCaptureSquare(from, to) : to, captured);
+        }
+
+        castlingRights = (int) (record >>> UNDO_CASTLING_SHIFT & CASTLING_MASK);
+        enPassantSquare = (int) (record >>> UNDO_EN_PASSANT_SHIFT & EN_PASSANT_MASK) - 1;
+    }
+
+    /**
+     * @return the castling moves still available, as a combination of {@link #WHITE_KINGSIDE},
+     *         {@link #WHITE_QUEENSIDE}, {@link #BLACK_KINGSIDE} and {@link #BLACK_QUEENSIDE}
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @param castlingRights the castling moves available, as a combination of
+     *        {@link #WHITE_KINGSIDE}, {@link #WHITE_QUEENSIDE}, {@link #BLACK_KINGSIDE} and
+     *        {@link #BLACK_QUEENSIDE}
+     */
+    public void setCastlingRights(int castlingRights) {
+        this.castlingRights = castlingRights & ALL_CASTLING;
+    }
+
+    /**
+     * Sets the castling rights to every castling move whose king and rook still stand on their
+     * starting squares. A board built piece by piece has no history, so this is the best guess
+     * of which pieces have not moved.
+     */
+    public void inferCastlingRights() {
+        long whiteRooks = getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        long blackRooks = getPieceBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        int rights = 0;
+        if (kingSquare(ChessGame.TeamColor.WHITE) == 4) {
+            rights |= ((whiteRooks & 1L << 7) != 0 ? WHITE_KINGSIDE : 0);
+            rights |= ((whiteRooks & 1L) != 0 ? WHITE_QUEENSIDE : 0);
+        }
+        if (kingSquare(ChessGame.TeamColor.BLACK) == 60) {
+            rights |= ((blackRooks & 1L << 63) != 0 ? BLACK_KINGSIDE : 0);
+            rights |= ((blackRooks & 1L << 56) != 0 ? BLACK_QUEENSIDE : 0);
+        }
+        castlingRights = rights;
+    }
+
+    /**
+     * @return the square a pawn can move to to capture en passant, or {@link #NO_SQUARE} if no
+     *         capture is possible
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @param square the square a pawn can move to to capture en passant, or {@link #NO_SQUARE}
+     */
+    public void setEnPassantSquare(int square) {
+        if (square < NO_SQUARE || square >= 64) {
+            throw new IllegalArgumentException("Invalid en passant square: " + square);
+        }
+        enPassantSquare = square;
+    }
+
+    /**
+     * Records the square a pawn skipped over as the en passant square, but only if an enemy
+     * pawn stands ready to capture there, so positions that differ in nothing else compare
+     * the same
+     */
+    private void setEnPassantAfterDoublePush(int pawn, int from, int to) {
+        int skipped = (from + to) / 2;
+        ChessGame.TeamColor mover = ChessPiece.fromIndex(pawn).getTeamColor();
+        long enemyPawns = pieceBoards[pieceIndex(mover.opponent(), ChessPiece.PieceType.PAWN)];
+        if ((AttackTables.pawnAttacks(mover, skipped) & enemyPawns) != 0) {
+            enPassantSquare = skipped;
+        }
+    }
+
+    /**
+     * Moves the rook that castles with the king, or moves it back when undoing
+     */
+    private void moveCastlingRook(int kingFrom, int kingTo, boolean undo) {
+        boolean kingside = (kingTo > kingFrom);
+        int rookHome = (kingside ? kingFrom + 3 : kingFrom - 4);
+        int rookCastled = (kingside ? kingFrom + 1 : kingFrom - 1);
+        int rookFrom = (undo ? rookCastled : rookHome);
+        int rookTo = (undo ? rookHome : rookCastled);
+
+        int rook = pieceIndexAt(rookFrom);
+        if (rook >= 0 && rook % PIECE_TYPES == ROOK) {
+            clearSquare(rookFrom, rook);
+            setSquare(rookTo, rook);
+        }
+    }
+
+    private static int enPassantCaptureSquare(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    /**
+     * @param teamColor the team whose king to find
+     * @return the square index of the team's king, or -1 if the team has no king on the board
+     */
+    int kingSquare(ChessGame.TeamColor teamColor) {
+        long kings = pieceBoards[pieceIndex(teamColor, ChessPiece.PieceType.KING)];
+        return (kings == 0 ? -1 : Long.numberOfTrailingZeros(kings));
+    }
+
+    /**
+     * Determines if any piece of the given team could capture on the given position
+     *
+     * @param position the position to test
+     * @param attacker the team that may be attacking
+     * @return True if the position is attacked by the given team
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor attacker) {
+        return AttackTables.isSquareAttacked(this, position.getSquare(), attacker);
+    }
+
+    /**
+     * Gets the Zobrist key of the piece placement (see {@link Zobrist}). Equal boards always have
+     * equal keys, and unequal boards almost never do.
+     *
+     * @return the 64-bit key of this board
+     */
+    public long positionKey() {
+        if (!keyValid) {
+            key = computeKey();
+            keyValid = true;
+        }
+        return key;
+    }
+
+    /**
+     * @param teamColor the team whose pieces to return
+     * @param type the type of piece to return
+     * @return a bitboard with one bit set for every square holding the given piece
+     */
+    public long getPieceBitboard(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return pieceBoards[pieceIndex(teamColor, type)];
+    }
+
+    /**
+     * @param teamColor the team whose pieces to return
+     * @return a bitboard with one bit set for every square holding a piece of the given team
+     */
+    public long getTeamBitboard(ChessGame.TeamColor teamColor) {
+        return (teamColor == ChessGame.TeamColor.WHITE ? whitePieces : blackPieces);
+    }
+
+    /**
+     * @return a bitboard with one bit set for every occupied square
+     */
+    public long getOccupiedBitboard() {
+        return whitePieces | blackPieces;
     }
 
     /**
      * Sets the board to the default starting board (How the game of chess normally starts)
      */
     public void resetBoard() {
-        squares = new ChessPiece[boardLength][boardLength];
+        for (long occupied = getOccupiedBitboard(); occupied != 0; occupied &= occupied - 1) {
+            clearSquare(Long.numberOfTrailingZeros(occupied));
+        }
+        key = 0;
+        keyValid = true;
+        castlingRights = ALL_CASTLING;
+        enPassantSquare = NO_SQUARE;
 
         Map<Integer, ChessPiece.PieceType> boardStructure =
                 Map.of(1, ChessPiece.PieceType.ROOK, 2, ChessPiece.PieceType.KNIGHT, 3,
@@ -60,22 +400,146 @@ public class ChessBoard implements Cloneable {
         for (Map.Entry<Integer, ChessPiece.PieceType> entry : boardStructure.entrySet()) {
             int col = entry.getKey();
 
-            addPiece(new ChessPosition(1, col),
+            addPiece(ChessPosition.of(1, col),
                     new ChessPiece(ChessGame.TeamColor.WHITE, entry.getValue()));
-            addPiece(new ChessPosition(2, col),
+            addPiece(ChessPosition.of(2, col),
                     new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(7, col),
+            addPiece(ChessPosition.of(7, col),
                     new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-            addPiece(new ChessPosition(8, col),
+            addPiece(ChessPosition.of(8, col),
                     new ChessPiece(ChessGame.TeamColor.BLACK, entry.getValue()));
         }
     }
 
+    /**
+     * Gets the piece on the given square index
+     *
+     * @param square the square index, from 0 to 63
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    ChessPiece pieceAt(int square) {
+        int index = pieceIndexAt(square);
+        return (index < 0 ? null : ChessPiece.fromIndex(index));
+    }
+
+    /**
+     * Puts a piece on the given square index, replacing any piece already there
+     *
+     * @param square the square index, from 0 to 63
+     * @param index the bitboard index of the piece
+     */
+    void setPiece(int square, int index) {
+        clearSquare(square);
+        setSquare(square, index);
+    }
+
+    /**
+     * Gets the bitboard index of the piece on the given square
+     *
+     * @param square the square index, from 0 to 63
+     * @return the piece index, or -1 if the square is empty
+     */
+    int pieceIndexAt(int square) {
+        long mask = 1L << square;
+        int offset;
+        if ((whitePieces & mask) != 0) {
+            offset = 0;
+        } else if ((blackPieces & mask) != 0) {
+            offset = PIECE_TYPES;
+        } else {
+            return -1;
+        }
+
+        for (int type = 0; type < PIECE_TYPES; type++) {
+            if ((pieceBoards[offset + type] & mask) != 0) {
+                return offset + type;
+            }
+        }
+        return -1;
+    }
+
+    private void setSquare(int square, int index) {
+        long mask = 1L << square;
+        pieceBoards[index] |= mask;
+        key ^= Zobrist.piece(index, square);
+        if (pieceListener != null) {
+            ChessPiece piece = ChessPiece.fromIndex(index);
+            pieceListener.pieceAdded(piece.getTeamColor(), piece.getPieceType(), square);
+        }
+        if (index < PIECE_TYPES) {
+            whitePieces |= mask;
+        } else {
+            blackPieces |= mask;
+        }
+    }
+
+    private void clearSquare(int square) {
+        int index = pieceIndexAt(square);
+        if (index >= 0) {
+            clearSquare(square, index);
+        }
+    }
+
+    private void clearSquare(int square, int index) {
+        long mask = ~(1L << square);
+        pieceBoards[index] &= mask;
+        key ^= Zobrist.piece(index, square);
+        if (pieceListener != null) {
+            ChessPiece piece = ChessPiece.fromIndex(index);
+            pieceListener.pieceRemoved(piece.getTeamColor(), piece.getPieceType(), square);
+        }
+        whitePieces &= mask;
+        blackPieces &= mask;
+    }
+
+    private void pushUndo(long record) {
+        if (undoStack == null) {
+            undoStack = new long[64];
+        } else if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+        }
+        undoStack[undoCount++] = record;
+    }
+
+    /**
+     * Computes the key from scratch. The key is not serialized, so a deserialized board starts
+     * without one and gets it here on first use.
+     */
+    private long computeKey() {
+        long newKey = 0;
+        for (int index = 0; index < pieceBoards.length; index++) {
+            for (long squares = pieceBoards[index]; squares != 0; squares &= squares - 1) {
+                newKey ^= Zobrist.piece(index, Long.numberOfTrailingZeros(squares));
+            }
+        }
+        return newKey;
+    }
+
+    static int pieceIndex(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return teamColor.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+
+    /**
+     * For each square, the castling rights that survive a move from or to it. Moving a king or
+     * rook off its starting square, or capturing a rook on it, loses the matching rights.
+     */
+    private static int[] createCastlingMasks() {
+        int[] masks = new int[64];
+        Arrays.fill(masks, ALL_CASTLING);
+        masks[0] &= ~WHITE_QUEENSIDE;
+        masks[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        masks[7] &= ~WHITE_KINGSIDE;
+        masks[56] &= ~BLACK_QUEENSIDE;
+        masks[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        masks[63] &= ~BLACK_KINGSIDE;
+        return masks;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + Arrays.deepHashCode(squares);
+        result = prime * result + Long.hashCode(positionKey());
         return result;
     }
 
@@ -94,7 +558,10 @@ public class ChessBoard implements Cloneable {
         }
 
         ChessBoard other = (ChessBoard) obj;
-        if (!Arrays.deepEquals(squares, other.squares)) {
+        if (positionKey() != other.positionKey()) {
+            return false;
+        }
+        if (!Arrays.equals(pieceBoards, other.pieceBoards)) {
             return false;
         }
         return true;
@@ -106,9 +573,10 @@ public class ChessBoard implements Cloneable {
         String pipe = "|";
         String space = " ";
 
-        for (int i = boardLength - 1; i >= 0; i--) {
+        for (int i = BOARD_LENGTH - 1; i >= 0; i--) {
             boardStringBuilder.append(pipe);
-            for (ChessPiece piece : squares[i]) {
+            for (int j = 0; j < BOARD_LENGTH; j++) {
+                ChessPiece piece = pieceAt(i * BOARD_LENGTH + j);
                 String pieceString = (piece != null ? piece.toString() : space);
                 boardStringBuilder.append(pieceString).append(pipe);
             }
@@ -117,19 +585,18 @@ public class ChessBoard implements Cloneable {
         return boardStringBuilder.toString();
     }
 
+    /**
+     * Copies the pieces, castling rights and en passant square of this board. The copy starts
+     * with no moves to take back and no piece listener.
+     */
     @Override
     public ChessBoard clone() {
         try {
             ChessBoard boardClone = (ChessBoard) super.clone();
-            boardClone.squares = new ChessPiece[boardLength][boardLength];
-
-            for (int i = 0; i < boardLength; i++) {
-                for (int j = 0; j < boardLength; j++) {
-                    if (this.squares[i][j] != null) {
-                        boardClone.squares[i][j] = this.squares[i][j].clone();
-                    }
-                }
-            }
+            boardClone.pieceBoards = this.pieceBoards.clone();
+            boardClone.undoStack = null;
+            boardClone.undoCount = 0;
+            boardClone.pieceListener = null;
             return boardClone;
         } catch (CloneNotSupportedException ex) {
             throw new RuntimeException(ex);
@@ -6,21 +6,66 @@ import java.util.HashSet;
 /**
  * For a class that can manage a chess game, making moves on a board
  * <p>
+ * A game is not thread-safe. Queries such as {@link #validMoves(ChessPosition)} and
+ * {@link #getGameStatus()} try each move on the game's own board and take it back, reusing one
+ * move list per game, so the board is left as it was but may not be read by another thread
+ * meanwhile. Copy a game before handing it to another thread.
+ * <p>
  * Note: You can add to this class, but you may not alter signature of the existing methods.
  */
 public class ChessGame implements Cloneable {
 
     private ChessBoard board;
     private TeamColor teamTurn;
-    private TeamPositions teamPositions;
     private boolean playable;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private transient TeamPositions teamPositions;
+    private transient GameStatus gameStatus;
+    private transient long gameStatusKey;
+    private transient MoveList moveBuffer;
+    private transient PositionCache positionCache;
 
     public ChessGame() {
         board = new ChessBoard();
         board.resetBoard();
-        teamPositions = new TeamPositions(board);
         setTeamTurn(TeamColor.WHITE);
         playable = true;
+        fullmoveNumber = 1;
+        positionCache = PositionCache.shared();
+    }
+
+    /**
+     * Creates a game on the given board as is, keeping its castling rights and en passant square
+     * rather than inferring them as {@link #setBoard(ChessBoard)} does
+     *
+     * @param board the board to play on
+     * @param teamTurn the team to move
+     */
+    public ChessGame(ChessBoard board, TeamColor teamTurn) {
+        this.board = board;
+        setTeamTurn(teamTurn);
+        playable = true;
+        fullmoveNumber = 1;
+        positionCache = PositionCache.shared();
+    }
+
+    /**
+     * Creates a game from a position in FEN notation (see {@link Fen})
+     *
+     * @param fen the position in FEN notation
+     * @return a new game at the given position
+     * @throws IllegalArgumentException if the text is not valid FEN
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the current position in FEN notation (see {@link Fen})
+     */
+    public String toFen() {
+        return Fen.format(this);
     }
 
     /**
@@ -37,6 +82,7 @@ public class ChessGame implements Cloneable {
      */
     public void setTeamTurn(TeamColor team) {
         teamTurn = team;
+        gameStatus = null;
     }
 
     /**
@@ -55,6 +101,39 @@ public class ChessGame implements Cloneable {
         this.playable = playable;
     }
 
+    /**
+     * @return the number of moves since the last capture or pawn move, for the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and increasing after each
+     *         black move
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Sets the cache used to look up the legal moves and status of positions this game reaches.
+     * Games use {@link PositionCache#shared()} unless told otherwise.
+     *
+     * @param positionCache the cache to use, or null to always compute them
+     */
+    public void setPositionCache(PositionCache positionCache) {
+        this.positionCache = positionCache;
+    }
+
     /**
      * Enum identifying the 2 possible teams in a chess game
      */
@@ -62,10 +141,87 @@ public class ChessGame implements Cloneable {
         WHITE, BLACK;
 
         private TeamColor toggle() {
+            return opponent();
+        }
+
+        /**
+         * @return the other team
+         */
+        public TeamColor opponent() {
             return this == WHITE ? BLACK : WHITE;
         }
     }
 
+    /**
+     * Enum identifying the state of the game for the team whose turn it is
+     */
+    public enum GameStatus {
+        IN_PROGRESS, CHECK, CHECKMATE, STALEMATE
+    }
+
+    /**
+     * Gets the state of the game for the team whose turn it is. The result is computed with a
+     * single pass over that team's moves and reused while the position key stays the same, so
+     * pieces added to or removed from {@link #getBoard()} directly are still seen.
+     *
+     * @return whether the team to move is in check, checkmate, stalemate, or none of them
+     */
+    public GameStatus getGameStatus() {
+        long key = positionKey();
+        if (gameStatus == null || gameStatusKey != key) {
+            gameStatus = (positionCache == null ? computeGameStatus(teamTurn)
+                    : getPositionEntry().status());
+            gameStatusKey = key;
+        }
+        return gameStatus;
+    }
+
+    private GameStatus getGameStatus(TeamColor teamColor) {
+        return (teamColor == teamTurn ? getGameStatus() : computeGameStatus(teamColor));
+    }
+
+    private GameStatus computeGameStatus(TeamColor teamColor) {
+        boolean inCheck = MoveGenerator.isKingAttacked(board, teamColor);
+        if (MoveGenerator.hasLegalMove(board, teamColor, getMoveBuffer())) {
+            return (inCheck ? GameStatus.CHECK : GameStatus.IN_PROGRESS);
+        }
+        return (inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE);
+    }
+
+    /**
+     * Looks up the legal moves and status of the current position for the team to move,
+     * analysing the position and caching the result if it is not cached yet
+     */
+    private PositionCache.Entry getPositionEntry() {
+        long key = positionKey();
+        PositionCache.Entry entry = positionCache.get(key);
+        if (entry != null) {
+            return entry;
+        }
+
+        MoveList moves = getMoveBuffer();
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, teamTurn, moves);
+        boolean inCheck = MoveGenerator.isKingAttacked(board, teamTurn);
+        GameStatus status;
+        if (moves.isEmpty()) {
+            status = (inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE);
+        } else {
+            status = (inCheck ? GameStatus.CHECK : GameStatus.IN_PROGRESS);
+        }
+
+        entry = new PositionCache.Entry(moves.toArray(), status);
+        positionCache.put(key, entry);
+        return entry;
+    }
+
+    private MoveList getMoveBuffer() {
+        if (moveBuffer == null) {
+            moveBuffer = new MoveList();
+        }
+        return moveBuffer;
+    }
+
     /**
      * Executes a move on the board.
      *
@@ -91,31 +247,23 @@ public class ChessGame implements Cloneable {
             return new HashSet<>();
         }
 
-        Collection<ChessMove> moves = piece.pieceMoves(board, startPosition);
-        Collection<ChessMove> invalidMoves = new HashSet<ChessMove>();
-
-        for (ChessMove move : moves) {
-            ChessBoard boardClone = board.clone();
-            ChessPiece pieceClone = boardClone.getPiece(move.getStartPosition());
-            executeMove(boardClone, pieceClone, move);
-            TeamPositions clonedPositions = new TeamPositions(boardClone);
-
-            ChessPosition kingPosition = clonedPositions.getKingPosition(pieceClone.getTeamColor());
-            Collection<ChessPosition> enemyPositions =
-                    clonedPositions.getEnemyPositions(pieceClone.getTeamColor());
-
-            for (ChessPosition position : enemyPositions) {
-                ChessPiece enemyPiece = boardClone.getPiece(position);
-                for (ChessMove enemyMove : enemyPiece.pieceMoves(boardClone, position)) {
-                    if (enemyMove.getEndPosition().equals(kingPosition)) {
-                        invalidMoves.add(move);
-                    }
+        int square = startPosition.getSquare();
+        if (positionCache != null && piece.getTeamColor() == teamTurn) {
+            Collection<ChessMove> validMoves = new HashSet<>();
+            for (int move : getPositionEntry().legalMoves()) {
+                if (PackedMove.from(move) == square) {
+                    validMoves.add(PackedMove.toChessMove(move));
                 }
             }
+            return validMoves;
         }
 
-        moves.removeAll(invalidMoves);
-        return moves;
+        MoveList moves = getMoveBuffer();
+        moves.clear();
+        MoveGenerator.generateMoves(board, square, moves);
+        MoveGenerator.removeIllegalMoves(board, piece.getTeamColor(), moves, 0);
+
+        return moves.toChessMoves();
     }
 
     /**
@@ -125,19 +273,21 @@ public class ChessGame implements Cloneable {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        ChessPiece.PieceType promotionPiece = move.getPromotionPiece();
         ChessPosition startPosition = move.getStartPosition();
         ChessPiece piece = board.getPiece(startPosition);
 
         validateMove(move, startPosition, piece);
 
-        if (promotionPiece != null) {
-            piece = new ChessPiece(getTeamTurn(), promotionPiece);
+        boolean resetsClock = (piece.getPieceType() == ChessPiece.PieceType.PAWN
+                || board.getPiece(move.getEndPosition()) != null);
+        halfmoveClock = (resetsClock ? 0 : halfmoveClock + 1);
+        if (teamTurn == TeamColor.BLACK) {
+            fullmoveNumber++;
         }
 
-        executeMove(board, piece, move);
+        board.makeMove(move);
+        getTeamPositions().applyMove(move, piece);
         setTeamTurn(getTeamTurn().toggle());
-        teamPositions.refreshPositions(board);
     }
 
     /**
@@ -173,7 +323,7 @@ public class ChessGame implements Cloneable {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        return isInCheck(teamColor, teamPositions);
+        return isInCheck(teamColor, getTeamPositions());
     }
 
     /**
@@ -185,14 +335,10 @@ public class ChessGame implements Cloneable {
      */
     public boolean isInCheck(TeamColor teamColor, TeamPositions positions) {
         ChessPosition kingPosition = positions.getKingPosition(teamColor);
-        for (ChessPosition position : positions.getEnemyPositions(teamColor)) {
-            for (ChessMove move : validMoves(position)) {
-                if (move.getEndPosition().equals(kingPosition)) {
-                    return true;
-                }
-            }
+        if (kingPosition == null) {
+            return false;
         }
-        return false;
+        return board.isSquareAttacked(kingPosition, teamColor.toggle());
     }
 
     /**
@@ -202,24 +348,7 @@ public class ChessGame implements Cloneable {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        if (!isInCheck(teamColor)) {
-            return false;
-        }
-
-        for (ChessPosition position : teamPositions.getFriendlyPositions(teamColor)) {
-            ChessBoard boardClone = board.clone();
-            ChessPiece pieceClone = boardClone.getPiece(position);
-
-            for (ChessMove move : validMoves(position)) {
-                executeMove(boardClone, pieceClone, move);
-                TeamPositions clonePositions = new TeamPositions(boardClone);
-                if (!isInCheck(teamColor, clonePositions)) {
-                    return false;
-                }
-            }
-        }
-
-        return true;
+        return getGameStatus(teamColor) == GameStatus.CHECKMATE;
     }
 
     /**
@@ -229,26 +358,23 @@ public class ChessGame implements Cloneable {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return false;
-        }
-
-        for (ChessPosition position : teamPositions.getFriendlyPositions(teamColor)) {
-            if (!validMoves(position).isEmpty()) {
-                return false;
-            }
-        }
-        return true;
+        return getGameStatus(teamColor) == GameStatus.STALEMATE;
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard to a copy of a given board, leaving the given board unchanged.
+     * The copy's castling rights are inferred from which kings and rooks stand on their starting
+     * squares, and no en passant capture is available.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        teamPositions = new TeamPositions(board);
-        this.board = board;
+        ChessBoard copy = board.clone();
+        copy.inferCastlingRights();
+        copy.setEnPassantSquare(ChessBoard.NO_SQUARE);
+        teamPositions = null;
+        this.board = copy;
+        gameStatus = null;
     }
 
     /**
@@ -260,14 +386,32 @@ public class ChessGame implements Cloneable {
         return board;
     }
 
+    /**
+     * Gets the tracked piece positions, reading them from the board the first time they are
+     * needed (including after the game is deserialized)
+     */
+    private TeamPositions getTeamPositions() {
+        if (teamPositions == null) {
+            teamPositions = new TeamPositions(board);
+        }
+        return teamPositions;
+    }
+
+    /**
+     * Gets the Zobrist key of the position, covering the pieces on the board, the castling
+     * rights, the en passant square and the team to move (see {@link Zobrist}). Games in the same
+     * position have the same key, which makes it suitable for position caches and repetition
+     * checks.
+     *
+     * @return the 64-bit key of the current position
+     */
+    public long positionKey() {
+        return Zobrist.position(board, teamTurn);
+    }
+
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((board == null) ? 0 : board.hashCode());
-        result = prime * result + ((teamTurn == null) ? 0 : teamTurn.hashCode());
-        result = prime * result + ((teamPositions == null) ? 0 : teamPositions.hashCode());
-        return result;
+        return (board == null ? 0 : Long.hashCode(positionKey()));
     }
 
     @Override
@@ -292,11 +436,8 @@ public class ChessGame implements Cloneable {
         if (teamTurn != other.teamTurn) {
             return false;
         }
-        if (teamPositions == null) {
-            if (other.teamPositions != null) {
-                return false;
-            }
-        } else if (!teamPositions.equals(other.teamPositions)) {
+        if (board != null && (board.getCastlingRights() != other.board.getCastlingRights()
+                || board.getEnPassantSquare() != other.board.getEnPassantSquare())) {
             return false;
         }
         return true;
@@ -2,7 +2,6 @@ package chess;
 
 import chess.finders.*;
 import java.util.Collection;
-import java.util.Map;
 
 /**
  * Represents a single chess piece
@@ -12,8 +11,13 @@ import java.util.Map;
 public class ChessPiece implements Cloneable {
     private final ChessGame.TeamColor pieceColor;
     private final ChessPiece.PieceType type;
-    private final Map<PieceType, String> pieces = Map.of(PieceType.KING, "K", PieceType.QUEEN, "Q",
-            PieceType.BISHOP, "B", PieceType.KNIGHT, "N", PieceType.ROOK, "R", PieceType.PAWN, "P");
+    /**
+     * The letter of every piece by its index, the team's ordinal times six plus the type's
+     * ordinal, uppercase for white as in FEN
+     */
+    private static final String LETTERS = "KQBNRPkqbnrp";
+    private static final int TYPE_COUNT = PieceType.values().length;
+    private static final ChessPiece[] PIECES = createPieces();
 
     public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
         this.pieceColor = pieceColor;
@@ -41,6 +45,46 @@ public class ChessPiece implements Cloneable {
         return type;
     }
 
+    /**
+     * @param pieceColor the team the piece belongs to
+     * @param type the type of piece
+     * @return the piece; pieces are immutable, so it is shared
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[pieceColor.ordinal() * TYPE_COUNT + type.ordinal()];
+    }
+
+    /**
+     * @param index the team's ordinal times six plus the piece type's ordinal
+     * @return the piece with the given index; pieces are immutable, so it is shared
+     */
+    public static ChessPiece fromIndex(int index) {
+        return PIECES[index];
+    }
+
+    /**
+     * @param letter the piece's letter, uppercase for white as in FEN
+     * @return the piece with the given letter, or null if no piece has it
+     */
+    public static ChessPiece fromLetter(char letter) {
+        int index = LETTERS.indexOf(letter);
+        return (index < 0 ? null : PIECES[index]);
+    }
+
+    /**
+     * @return the team's ordinal times six plus the piece type's ordinal
+     */
+    public int index() {
+        return pieceColor.ordinal() * TYPE_COUNT + type.ordinal();
+    }
+
+    /**
+     * @return the piece's letter, uppercase for white as in FEN
+     */
+    public char letter() {
+        return LETTERS.charAt(index());
+    }
+
     /**
      * Calculates all the positions a chess piece can move to Does not take into account moves that
      * are illegal due to leaving the king in danger
@@ -108,11 +152,18 @@ public class ChessPiece implements Cloneable {
 
     @Override
     public String toString() {
-        if (pieceColor == ChessGame.TeamColor.BLACK) {
-            return pieces.get(type).toLowerCase();
-        } else {
-            return pieces.get(type);
+        return String.valueOf(letter());
+    }
+
+    private static ChessPiece[] createPieces() {
+        ChessPiece[] pieces = new ChessPiece[LETTERS.length()];
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                var piece = new ChessPiece(color, type);
+                pieces[piece.index()] = piece;
+            }
         }
+        return pieces;
     }
 
     @Override
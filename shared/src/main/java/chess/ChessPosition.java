@@ -6,6 +6,8 @@ package chess;
  * Note: You can add to this class, but you may not alter signature of the existing methods.
  */
 public class ChessPosition {
+    private static final ChessPosition[] POSITIONS = createPositions();
+
     private final int row;
     private final int col;
 
@@ -14,6 +16,39 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a position on the board. Positions off the board are not
+     * shared, so a new instance is returned for them.
+     *
+     * @param row the row, 1 codes for the bottom row
+     * @param col the column, 1 codes for the left column
+     * @return the position at the given row and column
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 | row > 8 | col < 1 | col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return POSITIONS[(row - 1) * 8 + col - 1];
+    }
+
+    /**
+     * Gets the shared instance for a square index
+     *
+     * @param square the square index, from 0 (row 1, column 1) to 63 (row 8, column 8)
+     * @return the position of the square
+     */
+    public static ChessPosition fromSquare(int square) {
+        return POSITIONS[square];
+    }
+
+    private static ChessPosition[] createPositions() {
+        ChessPosition[] positions = new ChessPosition[64];
+        for (int square = 0; square < positions.length; square++) {
+            positions[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+        return positions;
+    }
+
     /**
      * @return which row this position is in 1 codes for the bottom row
      */
@@ -28,6 +63,13 @@ public class ChessPosition {
         return col;
     }
 
+    /**
+     * @return the square index of this position, from 0 (row 1, column 1) to 63 (row 8, column 8)
+     */
+    public int getSquare() {
+        return (row - 1) * 8 + col - 1;
+    }
+
     public boolean inBounds() {
         if (row < 1 | row > 8 | col < 1 | col > 8) {
             return false;
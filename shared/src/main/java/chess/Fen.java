@@ -0,0 +1,304 @@
+package chess;
+
+/**
+ * Reads and writes games in Forsyth-Edwards Notation (FEN): the piece placement, side to move,
+ * castling rights, en passant square, halfmove clock and fullmove number, separated by spaces.
+ * <p>
+ * The parser walks the text once by index and writes pieces straight onto the board's bitboards,
+ * so it allocates only the game and board it returns. The clock fields may be left off, as in
+ * EPD, in which case the clocks start at 0 and 1.
+ * <p>
+ * The board only keeps an en passant square when a pawn can actually capture there (see
+ * {@link ChessBoard#getEnPassantSquare()}), so one that no pawn can use is dropped when reading,
+ * and a position reached by play and the same position read from FEN get the same key.
+ */
+public final class Fen {
+    public static final String START_POSITION =
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String CASTLING_LETTERS = "KQkq";
+    private static final int[] CASTLING_RIGHTS = {ChessBoard.WHITE_KINGSIDE,
+        ChessBoard.WHITE_QUEENSIDE, ChessBoard.BLACK_KINGSIDE, ChessBoard.BLACK_QUEENSIDE};
+
+    private Fen() {}
+
+    /**
+     * @param fen the position in FEN notation
+     * @return a new game at the given position
+     * @throws IllegalArgumentException if the text is not valid FEN
+     */
+    public static ChessGame parse(CharSequence fen) {
+        var parser = new Parser(fen);
+        var board = new ChessBoard();
+        parser.readPlacement(board);
+        parser.expectSpace();
+        ChessGame.TeamColor teamTurn = parser.readTeamTurn();
+        parser.expectSpace();
+        board.setCastlingRights(parser.readCastlingRights());
+        parser.expectSpace();
+        int enPassantSquare = parser.readEnPassantSquare(teamTurn);
+        if (canCaptureEnPassant(board, teamTurn, enPassantSquare)) {
+            board.setEnPassantSquare(enPassantSquare);
+        }
+
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (!parser.atEnd()) {
+            parser.expectSpace();
+            halfmoveClock = parser.readNumber();
+            parser.expectSpace();
+            fullmoveNumber = parser.readNumber();
+        }
+        if (!parser.atEnd()) {
+            throw parser.error("unexpected text after the fullmove number");
+        }
+
+        var game = new ChessGame(board, teamTurn);
+        game.setHalfmoveClock(halfmoveClock);
+        game.setFullmoveNumber(fullmoveNumber);
+        return game;
+    }
+
+    private static boolean canCaptureEnPassant(ChessBoard board, ChessGame.TeamColor teamTurn,
+            int square) {
+        // the squares a pawn of the other team on the square would attack are where a capturing
+        // pawn of the team to move must stand
+        return square != ChessBoard.NO_SQUARE
+                && (AttackTables.pawnAttacks(teamTurn.opponent(), square) & board
+                        .getPieceBitboard(teamTurn, ChessPiece.PieceType.PAWN)) != 0;
+    }
+
+    /**
+     * @param game the game to describe
+     * @return the game's current position in FEN notation
+     */
+    public static String format(ChessGame game) {
+        var builder = new StringBuilder(90);
+        appendPlacement(builder, game.getBoard());
+        builder.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int rights = game.getBoard().getCastlingRights();
+        if (rights == 0) {
+            builder.append('-');
+        }
+        for (int i = 0; i < CASTLING_RIGHTS.length; i++) {
+            if ((rights & CASTLING_RIGHTS[i]) != 0) {
+                builder.append(CASTLING_LETTERS.charAt(i));
+            }
+        }
+
+        int enPassantSquare = game.getBoard().getEnPassantSquare();
+        builder.append(' ');
+        if (enPassantSquare == ChessBoard.NO_SQUARE) {
+            builder.append('-');
+        } else {
+            builder.append((char) ('a' + enPassantSquare % 8)).append(enPassantSquare / 8 + 1);
+        }
+
+        builder.append(' ').append(game.getHalfmoveClock());
+        builder.append(' ').append(game.getFullmoveNumber());
+        return builder.toString();
+    }
+
+    /**
+     * @param board the board to describe
+     * @return the piece placement field of the board's FEN, such as
+     *         {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR}
+     */
+    public static String formatPlacement(ChessBoard board) {
+        var builder = new StringBuilder(72);
+        appendPlacement(builder, board);
+        return builder.toString();
+    }
+
+    /**
+     * @param placement the piece placement field of a FEN string
+     * @return a new board with the pieces placed, without castling rights or en passant square
+     * @throws IllegalArgumentException if the text is not a valid piece placement
+     */
+    public static ChessBoard parsePlacement(CharSequence placement) {
+        var parser = new Parser(placement);
+        var board = new ChessBoard();
+        parser.readPlacement(board);
+        if (!parser.atEnd()) {
+            throw parser.error("unexpected text after the piece placement");
+        }
+        return board;
+    }
+
+    private static void appendPlacement(StringBuilder builder, ChessBoard board) {
+        for (int row = 7; row >= 0; row--) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                int index = board.pieceIndexAt(row * 8 + col);
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    builder.append(empty);
+                    empty = 0;
+                }
+                builder.append(ChessPiece.fromIndex(index).letter());
+            }
+            if (empty > 0) {
+                builder.append(empty);
+            }
+            if (row > 0) {
+                builder.append('/');
+            }
+        }
+    }
+
+    /**
+     * Reads the fields of a FEN string in order, keeping track of the current index for error
+     * messages
+     */
+    private static final class Parser {
+        private final CharSequence text;
+        private final int end;
+        private int index;
+
+        Parser(CharSequence text) {
+            if (text == null) {
+                throw new IllegalArgumentException("Invalid FEN: no text");
+            }
+            this.text = text;
+
+            int last = text.length();
+            while (last > 0 && Character.isWhitespace(text.charAt(last - 1))) {
+                last--;
+            }
+            end = last;
+            while (index < end && Character.isWhitespace(text.charAt(index))) {
+                index++;
+            }
+        }
+
+        void readPlacement(ChessBoard board) {
+            int row = 7;
+            int col = 0;
+            while (!atEnd() && peek() != ' ') {
+                char c = text.charAt(index);
+                if (c == '/') {
+                    if (col != 8) {
+                        throw error("rank " + (row + 1) + " does not have 8 squares");
+                    }
+                    if (row == 0) {
+                        throw error("the board has more than 8 ranks");
+                    }
+                    row--;
+                    col = 0;
+                } else if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                } else {
+                    ChessPiece piece = ChessPiece.fromLetter(c);
+                    if (piece == null) {
+                        throw error("unknown piece '" + c + "'");
+                    }
+                    if (col < 8) {
+                        board.setPiece(row * 8 + col, piece.index());
+                    }
+                    col++;
+                }
+                if (col > 8) {
+                    throw error("rank " + (row + 1) + " has more than 8 squares");
+                }
+                index++;
+            }
+            if (row != 0 || col != 8) {
+                throw error("the board does not have 8 full ranks");
+            }
+        }
+
+        ChessGame.TeamColor readTeamTurn() {
+            char c = next();
+            if (c == 'w') {
+                return ChessGame.TeamColor.WHITE;
+            } else if (c == 'b') {
+                return ChessGame.TeamColor.BLACK;
+            }
+            index--;
+            throw error("the side to move must be 'w' or 'b'");
+        }
+
+        int readCastlingRights() {
+            if (!atEnd() && peek() == '-') {
+                index++;
+                return 0;
+            }
+
+            int rights = 0;
+            while (!atEnd() && peek() != ' ') {
+                int letter = CASTLING_LETTERS.indexOf(peek());
+                if (letter < 0 || (rights & CASTLING_RIGHTS[letter]) != 0) {
+                    throw error("invalid castling rights");
+                }
+                rights |= CASTLING_RIGHTS[letter];
+                index++;
+            }
+            if (rights == 0) {
+                throw error("missing castling rights");
+            }
+            return rights;
+        }
+
+        int readEnPassantSquare(ChessGame.TeamColor teamTurn) {
+            char file = next();
+            if (file == '-') {
+                return ChessBoard.NO_SQUARE;
+            }
+            char rank = next();
+            char expectedRank = (teamTurn == ChessGame.TeamColor.WHITE ? '6' : '3');
+            if (file < 'a' || file > 'h' || rank != expectedRank) {
+                index -= 2;
+                throw error("invalid en passant square");
+            }
+            return (rank - '1') * 8 + (file - 'a');
+        }
+
+        int readNumber() {
+            int start = index;
+            int value = 0;
+            while (!atEnd() && peek() >= '0' && peek() <= '9') {
+                if (value > (Integer.MAX_VALUE - 9) / 10) {
+                    throw error("number is too large");
+                }
+                value = value * 10 + (text.charAt(index++) - '0');
+            }
+            if (index == start) {
+                throw error("expected a number");
+            }
+            return value;
+        }
+
+        void expectSpace() {
+            if (atEnd() || peek() != ' ') {
+                throw error("expected a space");
+            }
+            while (!atEnd() && peek() == ' ') {
+                index++;
+            }
+        }
+
+        boolean atEnd() {
+            return index >= end;
+        }
+
+        private char peek() {
+            return text.charAt(index);
+        }
+
+        private char next() {
+            if (atEnd()) {
+                throw error("unexpected end of text");
+            }
+            return text.charAt(index++);
+        }
+
+        IllegalArgumentException error(String reason) {
+            return new IllegalArgumentException(
+                    "Invalid FEN at index " + index + ": " + reason + ": " + text);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package chess;
+
+import chess.finders.*;
+
+/**
+ * Generates packed moves (see {@link PackedMove}) straight from a board's bitboards into a
+ * {@link MoveList}, without allocating per move
+ */
+public final class MoveGenerator {
+
+    private MoveGenerator() {}
+
+    /**
+     * Adds the moves of the piece on the given square, ignoring whether they leave its king in
+     * check
+     *
+     * @param board the board to look at
+     * @param square the square of the piece to move
+     * @param moves the list to add the moves to
+     */
+    public static void generateMoves(ChessBoard board, int square, MoveList moves) {
+        ChessPiece piece = board.pieceAt(square);
+        if (piece == null) {
+            return;
+        }
+
+        ChessGame.TeamColor teamColor = piece.getTeamColor();
+        switch (piece.getPieceType()) {
+            case KING -> KingMoveFinder.findMoves(board, square, teamColor, moves);
+            case QUEEN -> QueenMoveFinder.findMoves(board, square, teamColor, moves);
+            case BISHOP -> BishopMoveFinder.findMoves(board, square, teamColor, moves);
+            case KNIGHT -> KnightMoveFinder.findMoves(board, square, teamColor, moves);
+            case ROOK -> RookMoveFinder.findMoves(board, square, teamColor, moves);
+            case PAWN -> PawnMoveFinder.findMoves(board, square, teamColor, moves);
+        }
+    }
+
+    /**
+     * Adds the moves of every piece of the given team, ignoring whether they leave its king in
+     * check
+     *
+     * @param board the board to look at
+     * @param teamColor the team to move
+     * @param moves the list to add the moves to
+     */
+    public static void generateMoves(ChessBoard board, ChessGame.TeamColor teamColor,
+            MoveList moves) {
+        long pieces = board.getTeamBitboard(teamColor);
+        while (pieces != 0) {
+            generateMoves(board, Long.numberOfTrailingZeros(pieces), moves);
+            pieces &= pieces - 1;
+        }
+    }
+
+    /**
+     * Adds the moves of every piece of the given team that do not leave its king in check
+     *
+     * @param board the board to look at
+     * @param teamColor the team to move
+     * @param moves the list to add the moves to
+     */
+    public static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor teamColor,
+            MoveList moves) {
+        int start = moves.size();
+        generateMoves(board, teamColor, moves);
+        removeIllegalMoves(board, teamColor, moves, start);
+    }
+
+    /**
+     * Removes every move from the given index on that would leave the moving team's king in check
+     *
+     * @param board the board the moves are for
+     * @param teamColor the team making the moves
+     * @param moves the moves to filter in place
+     * @param start the index of the first move to filter
+     */
+    public static void removeIllegalMoves(ChessBoard board, ChessGame.TeamColor teamColor,
+            MoveList moves, int start) {
+        int kept = start;
+        for (int i = start; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isLegal(board, move, teamColor)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Determines if the given team has at least one move that does not leave its king in check
+     *
+     * @param board the board to look at
+     * @param teamColor the team to move
+     * @param buffer a list to generate moves into, it is cleared first
+     * @return True as soon as a legal move is found
+     */
+    public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor teamColor,
+            MoveList buffer) {
+        long pieces = board.getTeamBitboard(teamColor);
+        while (pieces != 0) {
+            buffer.clear();
+            generateMoves(board, Long.numberOfTrailingZeros(pieces), buffer);
+            pieces &= pieces - 1;
+
+            for (int i = 0; i < buffer.size(); i++) {
+                if (isLegal(board, buffer.get(i), teamColor)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Plays the move on the board, checks whether the moving team's king is attacked, then takes
+     * the move back
+     *
+     * @param board the board to play the move on
+     * @param move the packed move to try
+     * @param teamColor the team making the move
+     * @return True if the move does not leave the team's own king in check
+     */
+    public static boolean isLegal(ChessBoard board, int move, ChessGame.TeamColor teamColor) {
+        board.makeMove(move);
+        try {
+            return !isKingAttacked(board, teamColor);
+        } finally {
+            board.unmakeMove();
+        }
+    }
+
+    /**
+     * Determines if any enemy piece attacks the given team's king
+     *
+     * @param board the board to look at
+     * @param teamColor the team whose king to look at
+     * @return True if the king is attacked, false if it is safe or not on the board
+     */
+    public static boolean isKingAttacked(ChessBoard board, ChessGame.TeamColor teamColor) {
+        int kingSquare = board.kingSquare(teamColor);
+        return kingSquare >= 0
+                && AttackTables.isSquareAttacked(board, kingSquare, teamColor.opponent());
+    }
+}
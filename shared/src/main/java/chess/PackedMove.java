@@ -0,0 +1,87 @@
+package chess;
+
+/**
+ * Encodes a move as a single int so move generation does not allocate objects. Bits 0-5 hold the
+ * start square, bits 6-11 the end square, bits 12-14 the promotion piece (0 for none, otherwise
+ * the piece type's ordinal plus one) and the bits from 15 up hold flags.
+ */
+public final class PackedMove {
+    public static final int CAPTURE = 1 << 15;
+    public static final int CASTLE = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+
+    private static final int TO_SHIFT = 6;
+    private static final int PROMOTION_SHIFT = 12;
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {}
+
+    /**
+     * @param from the start square index
+     * @param to the end square index
+     * @param promotion the piece a pawn promotes to, or null if there is no promotion
+     * @param flags any flags for the move, such as {@link #CAPTURE}
+     * @return the packed move
+     */
+    public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionCode = (promotion == null ? 0 : promotion.ordinal() + 1);
+        return from | to << TO_SHIFT | promotionCode << PROMOTION_SHIFT | flags;
+    }
+
+    /**
+     * @param move the move to pack
+     * @return the packed move, without flags
+     */
+    public static int fromChessMove(ChessMove move) {
+        return encode(move.getStartPosition().getSquare(), move.getEndPosition().getSquare(),
+                move.getPromotionPiece(), 0);
+    }
+
+    /**
+     * @param move the packed move
+     * @return a ChessMove for the packed move
+     */
+    public static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.fromSquare(from(move)),
+                ChessPosition.fromSquare(to(move)), promotion(move));
+    }
+
+    public static int from(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    public static int to(int move) {
+        return move >>> TO_SHIFT & SQUARE_MASK;
+    }
+
+    /**
+     * @param move the packed move
+     * @return the piece a pawn promotes to, or null if there is no promotion
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int promotionCode = move >>> PROMOTION_SHIFT & PROMOTION_MASK;
+        return (promotionCode == 0 ? null : PIECE_TYPES[promotionCode - 1]);
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    /**
+     * @param move the packed move
+     * @return the move without its flags, which is enough to compare two moves
+     */
+    public static int withoutFlags(int move) {
+        return move & (CAPTURE - 1);
+    }
+}
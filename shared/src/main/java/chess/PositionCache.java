@@ -0,0 +1,167 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe cache of the legal moves and status of positions, keyed by the
+ * position's Zobrist key (see {@link ChessGame#positionKey()}). Games that reach a position
+ * another game has already analysed reuse the result instead of generating moves again.
+ * <p>
+ * The cache is split into stripes that are locked independently, and each stripe evicts its
+ * least recently used position once it is full.
+ */
+public class PositionCache {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private static final int MAX_STRIPES = 16;
+    private static final PositionCache SHARED =
+            new PositionCache(Integer.getInteger("chess.positionCache.size", DEFAULT_CAPACITY));
+
+    private final Stripe[] stripes;
+    private final int capacity;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * The cached analysis of a position, for the team to move
+     *
+     * @param legalMoves the packed legal moves (see {@link PackedMove}), which must not be
+     *        modified
+     * @param status the status of the game in the position
+     */
+    record Entry(int[] legalMoves, ChessGame.GameStatus status) {
+    }
+
+    /**
+     * @param capacity the most positions to hold at once, rounded up to a multiple of the number
+     *        of stripes
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public PositionCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+
+        int stripeCount = Integer.highestOneBit(Math.min(MAX_STRIPES, capacity));
+        int stripeCapacity = (capacity + stripeCount - 1) / stripeCount;
+        stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeCapacity, evictions);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the cache shared by every game in this JVM, sized by the
+     *         {@code chess.positionCache.size} system property
+     */
+    public static PositionCache shared() {
+        return SHARED;
+    }
+
+    Entry get(long key) {
+        Stripe stripe = stripeFor(key);
+        Entry entry;
+        synchronized (stripe) {
+            entry = stripe.get(key);
+        }
+
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    void put(long key, Entry entry) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes every cached position. The counters are kept.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * @return the number of positions currently cached
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the most positions the cache holds at once
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return how many lookups found their position
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return how many lookups did not find their position
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return how many positions were dropped to make room for newer ones
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Stripe stripeFor(long key) {
+        return stripes[(int) (key ^ key >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * A least recently used map guarded by its own monitor
+     */
+    private static final class Stripe extends LinkedHashMap<Long, Entry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int stripeCapacity;
+        private final transient LongAdder evictions;
+
+        Stripe(int stripeCapacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.stripeCapacity = stripeCapacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > stripeCapacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,71 +1,173 @@
 package chess;
 
+import java.util.AbstractSet;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import chess.ChessGame.TeamColor;
 
+/**
+ * Tracks which squares each team occupies and where each king stands. Squares are kept as one
+ * 64-bit mask per team, so a move updates them in constant time.
+ */
 public class TeamPositions {
-    private Collection<ChessPosition> whitePositions;
-    private Collection<ChessPosition> blackPositions;
-    private ChessPosition whiteKingPosition;
-    private ChessPosition blackKingPosition;
+    private long whiteSquares;
+    private long blackSquares;
+    private int whiteKingSquare = -1;
+    private int blackKingSquare = -1;
 
     public TeamPositions(ChessBoard board) {
         refreshPositions(board);
     }
 
+    /**
+     * Reads every team's squares and king from the given board
+     *
+     * @param board the board to read
+     */
     public void refreshPositions(ChessBoard board) {
-        whitePositions = new HashSet<ChessPosition>();
-        blackPositions = new HashSet<ChessPosition>();
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition position = new ChessPosition(i, j);
-                ChessPiece piece = board.getPiece(position);
-                if (piece == null) {
-                    continue;
-                }
+        whiteSquares = board.getTeamBitboard(TeamColor.WHITE);
+        blackSquares = board.getTeamBitboard(TeamColor.BLACK);
+        whiteKingSquare = board.kingSquare(TeamColor.WHITE);
+        blackKingSquare = board.kingSquare(TeamColor.BLACK);
+    }
 
-                if (piece.getTeamColor() == ChessGame.TeamColor.WHITE) {
-                    whitePositions.add(position);
-                } else {
-                    blackPositions.add(position);
-                }
+    /**
+     * Updates the tracked squares for a piece moving from one square to another, capturing any
+     * enemy piece on the end square. A king moving two columns also moves its castling rook, and
+     * a pawn moving diagonally onto an empty square captures en passant.
+     *
+     * @param move the move being played
+     * @param piece the piece being moved
+     */
+    public void applyMove(ChessMove move, ChessPiece piece) {
+        int from = move.getStartPosition().getSquare();
+        int to = move.getEndPosition().getSquare();
+        long fromMask = 1L << from;
+        long toMask = 1L << to;
+        long captureMask = toMask;
 
-                if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    setKingPosition(piece.getTeamColor(), position);
-                }
-            }
+        boolean enPassant = (piece.getPieceType() == ChessPiece.PieceType.PAWN
+                && (from & 7) != (to & 7) && ((whiteSquares | blackSquares) & toMask) == 0);
+        if (enPassant) {
+            captureMask = 1L << ((from & ~7) | (to & 7));
+        }
+
+        if (piece.getPieceType() == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            boolean kingside = (to > from);
+            fromMask |= 1L << (kingside ? from + 3 : from - 4);
+            toMask |= 1L << (kingside ? from + 1 : from - 1);
+        }
+
+        if (piece.getTeamColor() == TeamColor.WHITE) {
+            whiteSquares = (whiteSquares & ~fromMask) | toMask;
+            blackSquares &= ~captureMask;
+        } else {
+            blackSquares = (blackSquares & ~fromMask) | toMask;
+            whiteSquares &= ~captureMask;
+        }
+
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            setKingSquare(piece.getTeamColor(), to);
         }
     }
 
     public ChessPosition getKingPosition(ChessGame.TeamColor teamColor) {
-        return (teamColor == ChessGame.TeamColor.WHITE ? whiteKingPosition : blackKingPosition);
+        int square = (teamColor == TeamColor.WHITE ? whiteKingSquare : blackKingSquare);
+        return (square < 0 ? null : ChessPosition.fromSquare(square));
     }
 
     public void setKingPosition(ChessGame.TeamColor teamColor, ChessPosition kingPosition) {
-        if (teamColor == ChessGame.TeamColor.WHITE) {
-            this.whiteKingPosition = kingPosition;
-        } else {
-            this.blackKingPosition = kingPosition;
-        }
+        setKingSquare(teamColor, (kingPosition == null ? -1 : kingPosition.getSquare()));
     }
 
+    /**
+     * @param teamColor the team whose pieces to return
+     * @return a live view of the positions of the team's pieces
+     */
     public Collection<ChessPosition> getFriendlyPositions(ChessGame.TeamColor teamColor) {
-        return (teamColor == TeamColor.WHITE ? whitePositions : blackPositions);
+        return new PositionSet(teamColor);
     }
 
+    /**
+     * @param teamColor the team whose opponent's pieces to return
+     * @return a live view of the positions of the opposing team's pieces
+     */
     public Collection<ChessPosition> getEnemyPositions(ChessGame.TeamColor teamColor) {
-        return (teamColor == TeamColor.WHITE ? blackPositions : whitePositions);
+        return new PositionSet(teamColor.opponent());
+    }
+
+    private void setKingSquare(TeamColor teamColor, int square) {
+        if (teamColor == TeamColor.WHITE) {
+            whiteKingSquare = square;
+        } else {
+            blackKingSquare = square;
+        }
+    }
+
+    private long squares(TeamColor teamColor) {
+        return (teamColor == TeamColor.WHITE ? whiteSquares : blackSquares);
+    }
+
+    /**
+     * A read-only set of the positions in one team's square mask
+     */
+    private class PositionSet extends AbstractSet<ChessPosition> {
+        private final TeamColor teamColor;
+
+        PositionSet(TeamColor teamColor) {
+            this.teamColor = teamColor;
+        }
+
+        @Override
+        public boolean contains(Object obj) {
+            if (!(obj instanceof ChessPosition position)) {
+                return false;
+            }
+            int row = position.getRow();
+            int col = position.getColumn();
+            if (row < 1 || row > 8 || col < 1 || col > 8) {
+                return false;
+            }
+            return (squares(teamColor) & 1L << position.getSquare()) != 0;
+        }
+
+        @Override
+        public int size() {
+            return Long.bitCount(squares(teamColor));
+        }
+
+        @Override
+        public Iterator<ChessPosition> iterator() {
+            return new Iterator<>() {
+                private long remaining = squares(teamColor);
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public ChessPosition next() {
+                    if (remaining == 0) {
+                        throw new NoSuchElementException();
+                    }
+                    int square = Long.numberOfTrailingZeros(remaining);
+                    remaining &= remaining - 1;
+                    return ChessPosition.fromSquare(square);
+                }
+            };
+        }
     }
 
     @Override
     public int hashCode() {
         final int prime = 31;
         int result = 1;
-        result = prime * result + ((whitePositions == null) ? 0 : whitePositions.hashCode());
-        result = prime * result + ((blackPositions == null) ? 0 : blackPositions.hashCode());
-        result = prime * result + ((whiteKingPosition == null) ? 0 : whiteKingPosition.hashCode());
-        result = prime * result + ((blackKingPosition == null) ? 0 : blackKingPosition.hashCode());
+        result = prime * result + Long.hashCode(whiteSquares);
+        result = prime * result + Long.hashCode(blackSquares);
+        result = prime * result + whiteKingSquare;
+        result = prime * result + blackKingSquare;
         return result;
     }
 
@@ -81,34 +183,8 @@ public class TeamPositions {
             return false;
         }
         TeamPositions other = (TeamPositions) obj;
-        if (whitePositions == null) {
-            if (other.whitePositions != null) {
-                return false;
-            }
-        } else if (!whitePositions.containsAll(other.whitePositions)) {
-            return false;
-        }
-        if (blackPositions == null) {
-            if (other.blackPositions != null) {
-                return false;
-            }
-        } else if (!blackPositions.containsAll(other.blackPositions)) {
-            return false;
-        }
-        if (whiteKingPosition == null) {
-            if (other.whiteKingPosition != null) {
-                return false;
-            }
-        } else if (!whiteKingPosition.equals(other.whiteKingPosition)) {
-            return false;
-        }
-        if (blackKingPosition == null) {
-            if (other.blackKingPosition != null) {
-                return false;
-            }
-        } else if (!blackKingPosition.equals(other.blackKingPosition)) {
-            return false;
-        }
-        return true;
+        return whiteSquares == other.whiteSquares && blackSquares == other.blackSquares
+                && whiteKingSquare == other.whiteKingSquare
+                && blackKingSquare == other.blackKingSquare;
     }
 }
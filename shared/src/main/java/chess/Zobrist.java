@@ -0,0 +1,99 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for hashing positions. A position's key is the XOR of the key for every
+ * piece on its square, the key for its castling rights, the key for its en passant file if it has
+ * one, and {@link #blackToMove()} when black is to move, so a move updates the key with a few XORs
+ * instead of a pass over the board.
+ * <p>
+ * The keys come from a fixed seed, so a position has the same key in every JVM.
+ */
+public final class Zobrist {
+    private static final long SEED = 0x5EED_C0FF_EE15_240DL;
+    private static final long[][] PIECE_KEYS = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] CASTLING_KEYS = new long[ChessBoard.ALL_CASTLING + 1];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+
+    static {
+        var random = new SplittableRandom(SEED);
+        for (long[] pieceKeys : PIECE_KEYS) {
+            for (int square = 0; square < pieceKeys.length; square++) {
+                pieceKeys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        // no rights hashes to 0, so positions without castling keep their old keys
+        for (int rights = 1; rights < CASTLING_KEYS.length; rights++) {
+            CASTLING_KEYS[rights] = random.nextLong();
+        }
+        for (int file = 0; file < EN_PASSANT_KEYS.length; file++) {
+            EN_PASSANT_KEYS[file] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {}
+
+    /**
+     * @param pieceIndex the piece's bitboard index in {@link ChessBoard}
+     * @param square the square index, from 0 to 63
+     * @return the key for the piece standing on the square
+     */
+    static long piece(int pieceIndex, int square) {
+        return PIECE_KEYS[pieceIndex][square];
+    }
+
+    /**
+     * @param teamColor the team whose piece it is
+     * @param type the type of piece
+     * @param square the square index, from 0 to 63
+     * @return the key for the piece standing on the square
+     */
+    public static long piece(ChessGame.TeamColor teamColor, ChessPiece.PieceType type,
+            int square) {
+        return PIECE_KEYS[ChessBoard.pieceIndex(teamColor, type)][square];
+    }
+
+    /**
+     * @return the key XORed into a position when black is to move
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * @param castlingRights the castling rights, as stored by {@link ChessBoard}
+     * @return the castling part of a position key
+     */
+    public static long castling(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * @param square the en passant square, or {@link ChessBoard#NO_SQUARE}
+     * @return the en passant part of a position key
+     */
+    public static long enPassant(int square) {
+        return (square < 0 ? 0 : EN_PASSANT_KEYS[square & 7]);
+    }
+
+    /**
+     * @param board the board to hash
+     * @param teamColor the team to move
+     * @return the full key of the position: pieces, castling rights, en passant and side to move
+     */
+    public static long position(ChessBoard board, ChessGame.TeamColor teamColor) {
+        return board.positionKey() ^ castling(board.getCastlingRights())
+                ^ enPassant(board.getEnPassantSquare()) ^ sideToMove(teamColor);
+    }
+
+    /**
+     * @param teamColor the team to move
+     * @return the side to move part of a position key
+     */
+    public static long sideToMove(ChessGame.TeamColor teamColor) {
+        return (teamColor == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0);
+    }
+}
@@ -0,0 +1,35 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Scores positions for the search. An evaluator may keep running totals up to date as pieces
+ * move: the search attaches it to its board as a {@link ChessBoard.PieceListener} after calling
+ * {@link #reset(ChessBoard)}, so an evaluator instance serves one board at a time.
+ */
+public interface Evaluator extends ChessBoard.PieceListener {
+
+    /**
+     * Recomputes any running totals from scratch for the given board
+     *
+     * @param board the board this evaluator will follow
+     */
+    void reset(ChessBoard board);
+
+    /**
+     * @param board the board to score, the one this evaluator was last reset with
+     * @param teamColor the team to score the board for
+     * @return the score of the board for the team, in centipawns
+     */
+    int evaluate(ChessBoard board, ChessGame.TeamColor teamColor);
+
+    @Override
+    default void pieceAdded(ChessGame.TeamColor teamColor, ChessPiece.PieceType type,
+            int square) {}
+
+    @Override
+    default void pieceRemoved(ChessGame.TeamColor teamColor, ChessPiece.PieceType type,
+            int square) {}
+}
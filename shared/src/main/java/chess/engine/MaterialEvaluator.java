@@ -0,0 +1,61 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Scores positions by material alone, keeping a running balance as pieces come and go
+ */
+public class MaterialEvaluator implements Evaluator {
+    private static final int[] PIECE_VALUES = new int[ChessPiece.PieceType.values().length];
+
+    static {
+        PIECE_VALUES[ChessPiece.PieceType.KING.ordinal()] = 0;
+        PIECE_VALUES[ChessPiece.PieceType.QUEEN.ordinal()] = 900;
+        PIECE_VALUES[ChessPiece.PieceType.ROOK.ordinal()] = 500;
+        PIECE_VALUES[ChessPiece.PieceType.BISHOP.ordinal()] = 330;
+        PIECE_VALUES[ChessPiece.PieceType.KNIGHT.ordinal()] = 320;
+        PIECE_VALUES[ChessPiece.PieceType.PAWN.ordinal()] = 100;
+    }
+
+    private int whiteBalance;
+
+    /**
+     * @param type the type of piece
+     * @return the material value of the piece in centipawns, 0 for the king
+     */
+    public static int pieceValue(ChessPiece.PieceType type) {
+        return PIECE_VALUES[type.ordinal()];
+    }
+
+    @Override
+    public void reset(ChessBoard board) {
+        whiteBalance = 0;
+        for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+            int count = Long.bitCount(board.getPieceBitboard(ChessGame.TeamColor.WHITE, type))
+                    - Long.bitCount(board.getPieceBitboard(ChessGame.TeamColor.BLACK, type));
+            whiteBalance += count * PIECE_VALUES[type.ordinal()];
+        }
+    }
+
+    @Override
+    public int evaluate(ChessBoard board, ChessGame.TeamColor teamColor) {
+        return (teamColor == ChessGame.TeamColor.WHITE ? whiteBalance : -whiteBalance);
+    }
+
+    @Override
+    public void pieceAdded(ChessGame.TeamColor teamColor, ChessPiece.PieceType type, int square) {
+        whiteBalance += signed(teamColor, PIECE_VALUES[type.ordinal()]);
+    }
+
+    @Override
+    public void pieceRemoved(ChessGame.TeamColor teamColor, ChessPiece.PieceType type,
+            int square) {
+        whiteBalance -= signed(teamColor, PIECE_VALUES[type.ordinal()]);
+    }
+
+    private static int signed(ChessGame.TeamColor teamColor, int value) {
+        return (teamColor == ChessGame.TeamColor.WHITE ? value : -value);
+    }
+}
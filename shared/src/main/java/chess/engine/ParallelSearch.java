@@ -0,0 +1,150 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Searches one position on several threads at once (Lazy SMP). Every thread runs its own
+ * {@link Search} over its own copy of the board, and they share one lock-free
+ * {@link TranspositionTable}, so each thread's results steer and cut short the others' work.
+ * Helper threads start every other one a ply deeper to spread them over different parts of the
+ * tree.
+ * <p>
+ * The calling thread runs the main search, whose limits and result decide the move. Helpers
+ * search until the main search finishes. Node counts cover every thread.
+ */
+public class ParallelSearch implements AutoCloseable {
+    public static final int DEFAULT_TABLE_ENTRIES = 1 << 20;
+
+    private final int threads;
+    private final TranspositionTable table;
+    private final Supplier<Evaluator> evaluators;
+    private final ExecutorService helpers;
+
+    /**
+     * Creates a search using every available processor
+     */
+    public ParallelSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads the number of threads to search with, including the calling thread
+     */
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(DEFAULT_TABLE_ENTRIES), PieceSquareEvaluator::new);
+    }
+
+    /**
+     * @param threads the number of threads to search with, including the calling thread
+     * @param table the table the threads share
+     * @param evaluators creates an evaluator for each thread
+     * @throws IllegalArgumentException if there is not at least one thread
+     */
+    public ParallelSearch(int threads, TranspositionTable table,
+            Supplier<Evaluator> evaluators) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least one thread: " + threads);
+        }
+
+        this.threads = threads;
+        this.table = table;
+        this.evaluators = evaluators;
+        this.helpers = (threads == 1 ? null
+                : Executors.newFixedThreadPool(threads - 1, runnable -> {
+                    var thread = new Thread(runnable, "search-helper");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    /**
+     * @return the number of threads each search uses
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @param game the game to search from, it is not modified
+     * @param limits when to stop the main search
+     * @return the main search's result, with the nodes of every thread
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        return search(game.getBoard(), game.getTeamTurn(), limits);
+    }
+
+    /**
+     * @param board the board to search from, it is not modified
+     * @param teamTurn the team to move
+     * @param limits when to stop the main search
+     * @return the main search's result, with the nodes of every thread
+     */
+    public SearchResult search(ChessBoard board, ChessGame.TeamColor teamTurn,
+            SearchLimits limits) {
+        List<Search> helperSearches = new ArrayList<>(threads - 1);
+        List<Future<SearchResult>> helperResults = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            var helper = new Search(board, teamTurn, table, evaluators.get());
+            int firstDepth = 1 + i % 2;
+            helperSearches.add(helper);
+            helperResults.add(helpers.submit(
+                    () -> helper.search(SearchLimits.depth(SearchLimits.MAX_DEPTH), firstDepth)));
+        }
+
+        SearchResult main;
+        try {
+            main = new Search(board, teamTurn, table, evaluators.get()).search(limits);
+        } finally {
+            helperSearches.forEach(Search::stop);
+        }
+
+        List<SearchResult> helperRuns = new ArrayList<>(helperResults.size());
+        for (Future<SearchResult> result : helperResults) {
+            helperRuns.add(awaitHelper(result));
+        }
+        return combine(main, helperRuns);
+    }
+
+    /**
+     * @param main the main search's result
+     * @param helperRuns the results of the helper searches
+     * @return the main search's result, with the nodes of the helpers added to its own
+     */
+    static SearchResult combine(SearchResult main, List<SearchResult> helperRuns) {
+        long nodes = main.nodes();
+        for (SearchResult helperRun : helperRuns) {
+            nodes += helperRun.nodes();
+        }
+        return new SearchResult(main.bestMove(), main.score(), main.depth(), nodes,
+                main.elapsedNanos(), main.principalVariation());
+    }
+
+    private static SearchResult awaitHelper(Future<SearchResult> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a search thread", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("A search thread failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Stops the helper threads. The search cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
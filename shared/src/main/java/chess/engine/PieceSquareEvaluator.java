@@ -0,0 +1,281 @@
+package chess.engine;
+
+import chess.AttackTables;
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+
+/**
+ * Scores positions by material, piece-square tables, mobility and king safety.
+ * <p>
+ * Material and piece-square totals are kept up to date as pieces move, for both the middlegame
+ * and the endgame, and blended by how much material is left. Mobility and king safety depend on
+ * every piece at once, so they are computed when a position is evaluated, from the board's
+ * bitboards. The weights of those terms can be tuned through {@link Weights}.
+ */
+public class PieceSquareEvaluator implements Evaluator {
+    private static final int MAX_PHASE = 24;
+    private static final int[] PHASE_WEIGHTS = new int[ChessPiece.PieceType.values().length];
+
+    // tables are written from white's side with row 8 first, as they would be printed
+    private static final int[] PAWN_TABLE = {
+        0, 0, 0, 0, 0, 0, 0, 0,
+        50, 50, 50, 50, 50, 50, 50, 50,
+        10, 10, 20, 30, 30, 20, 10, 10,
+        5, 5, 10, 25, 25, 10, 5, 5,
+        0, 0, 0, 20, 20, 0, 0, 0,
+        5, -5, -10, 0, 0, -10, -5, 5,
+        5, 10, 10, -20, -20, 10, 10, 5,
+        0, 0, 0, 0, 0, 0, 0, 0};
+    private static final int[] KNIGHT_TABLE = {
+        -50, -40, -30, -30, -30, -30, -40, -50,
+        -40, -20, 0, 0, 0, 0, -20, -40,
+        -30, 0, 10, 15, 15, 10, 0, -30,
+        -30, 5, 15, 20, 20, 15, 5, -30,
+        -30, 0, 15, 20, 20, 15, 0, -30,
+        -30, 5, 10, 15, 15, 10, 5, -30,
+        -40, -20, 0, 5, 5, 0, -20, -40,
+        -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] BISHOP_TABLE = {
+        -20, -10, -10, -10, -10, -10, -10, -20,
+        -10, 0, 0, 0, 0, 0, 0, -10,
+        -10, 0, 5, 10, 10, 5, 0, -10,
+        -10, 5, 5, 10, 10, 5, 5, -10,
+        -10, 0, 10, 10, 10, 10, 0, -10,
+        -10, 10, 10, 10, 10, 10, 10, -10,
+        -10, 5, 0, 0, 0, 0, 5, -10,
+        -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] ROOK_TABLE = {
+        0, 0, 0, 0, 0, 0, 0, 0,
+        5, 10, 10, 10, 10, 10, 10, 5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        -5, 0, 0, 0, 0, 0, 0, -5,
+        0, 0, 0, 5, 5, 0, 0, 0};
+    private static final int[] QUEEN_TABLE = {
+        -20, -10, -10, -5, -5, -10, -10, -20,
+        -10, 0, 0, 0, 0, 0, 0, -10,
+        -10, 0, 5, 5, 5, 5, 0, -10,
+        -5, 0, 5, 5, 5, 5, 0, -5,
+        0, 0, 5, 5, 5, 5, 0, -5,
+        -10, 5, 5, 5, 5, 5, 0, -10,
+        -10, 0, 5, 0, 0, 0, 0, -10,
+        -20, -10, -10, -5, -5, -10, -10, -20};
+    private static final int[] KING_MIDDLEGAME_TABLE = {
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -30, -40, -40, -50, -50, -40, -40, -30,
+        -20, -30, -30, -40, -40, -30, -30, -20,
+        -10, -20, -20, -20, -20, -20, -20, -10,
+        20, 20, 0, 0, 0, 0, 20, 20,
+        20, 30, 10, 0, 0, 10, 30, 20};
+    private static final int[] KING_ENDGAME_TABLE = {
+        -50, -40, -30, -20, -20, -30, -40, -50,
+        -30, -20, -10, 0, 0, -10, -20, -30,
+        -30, -10, 20, 30, 30, 20, -10, -30,
+        -30, -10, 30, 40, 40, 30, -10, -30,
+        -30, -10, 30, 40, 40, 30, -10, -30,
+        -30, -10, 20, 30, 30, 20, -10, -30,
+        -30, -30, 0, 0, 0, 0, -30, -30,
+        -50, -30, -30, -30, -30, -30, -30, -50};
+
+    // [team][piece type][square], material included
+    private static final int[][][] MIDDLEGAME_SCORES = new int[2][][];
+    private static final int[][][] ENDGAME_SCORES = new int[2][][];
+
+    static {
+        PHASE_WEIGHTS[ChessPiece.PieceType.KNIGHT.ordinal()] = 1;
+        PHASE_WEIGHTS[ChessPiece.PieceType.BISHOP.ordinal()] = 1;
+        PHASE_WEIGHTS[ChessPiece.PieceType.ROOK.ordinal()] = 2;
+        PHASE_WEIGHTS[ChessPiece.PieceType.QUEEN.ordinal()] = 4;
+
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            int[][] middlegame = new int[ChessPiece.PieceType.values().length][];
+            int[][] endgame = new int[ChessPiece.PieceType.values().length][];
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                middlegame[type.ordinal()] = squareScores(color, type, tableFor(type, false));
+                endgame[type.ordinal()] = squareScores(color, type, tableFor(type, true));
+            }
+            MIDDLEGAME_SCORES[color.ordinal()] = middlegame;
+            ENDGAME_SCORES[color.ordinal()] = endgame;
+        }
+    }
+
+    /**
+     * Tunable weights of the terms computed at evaluation time, in centipawns
+     *
+     * @param knightMobility per square a knight attacks that is not held by its own team
+     * @param bishopMobility per square a bishop attacks that is not held by its own team
+     * @param rookMobility per square a rook attacks that is not held by its own team
+     * @param queenMobility per square a queen attacks that is not held by its own team
+     * @param pawnShield per own pawn next to the king, scaled down toward the endgame
+     * @param kingZoneAttack per attack on a square next to the enemy king, scaled down toward
+     *        the endgame
+     */
+    public record Weights(int knightMobility, int bishopMobility, int rookMobility,
+            int queenMobility, int pawnShield, int kingZoneAttack) {
+        public static final Weights DEFAULT = new Weights(4, 5, 2, 1, 10, 8);
+    }
+
+    private final Weights weights;
+    private final int[] middlegame = new int[2];
+    private final int[] endgame = new int[2];
+    private int phase;
+
+    public PieceSquareEvaluator() {
+        this(Weights.DEFAULT);
+    }
+
+    /**
+     * @param weights the weights of the mobility and king safety terms
+     */
+    public PieceSquareEvaluator(Weights weights) {
+        this.weights = weights;
+    }
+
+    @Override
+    public void reset(ChessBoard board) {
+        middlegame[0] = middlegame[1] = 0;
+        endgame[0] = endgame[1] = 0;
+        phase = 0;
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                long pieces = board.getPieceBitboard(color, type);
+                for (; pieces != 0; pieces &= pieces - 1) {
+                    pieceAdded(color, type, Long.numberOfTrailingZeros(pieces));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void pieceAdded(ChessGame.TeamColor teamColor, ChessPiece.PieceType type, int square) {
+        int team = teamColor.ordinal();
+        middlegame[team] += MIDDLEGAME_SCORES[team][type.ordinal()][square];
+        endgame[team] += ENDGAME_SCORES[team][type.ordinal()][square];
+        phase += PHASE_WEIGHTS[type.ordinal()];
+    }
+
+    @Override
+    public void pieceRemoved(ChessGame.TeamColor teamColor, ChessPiece.PieceType type,
+            int square) {
+        int team = teamColor.ordinal();
+        middlegame[team] -= MIDDLEGAME_SCORES[team][type.ordinal()][square];
+        endgame[team] -= ENDGAME_SCORES[team][type.ordinal()][square];
+        phase -= PHASE_WEIGHTS[type.ordinal()];
+    }
+
+    @Override
+    public int evaluate(ChessBoard board, ChessGame.TeamColor teamColor) {
+        int us = teamColor.ordinal();
+        int them = 1 - us;
+        int middlegamePhase = Math.min(phase, MAX_PHASE);
+
+        int middlegameScore = middlegame[us] - middlegame[them]
+                + kingSafety(board, teamColor) - kingSafety(board, teamColor.opponent());
+        int endgameScore = endgame[us] - endgame[them];
+        int tapered = (middlegameScore * middlegamePhase
+                + endgameScore * (MAX_PHASE - middlegamePhase)) / MAX_PHASE;
+
+        return tapered + mobility(board, teamColor) - mobility(board, teamColor.opponent());
+    }
+
+    private int mobility(ChessBoard board, ChessGame.TeamColor teamColor) {
+        long own = board.getTeamBitboard(teamColor);
+        long occupied = board.getOccupiedBitboard();
+        int score = 0;
+
+        for (long pieces = board.getPieceBitboard(teamColor, ChessPiece.PieceType.KNIGHT);
+                pieces != 0; pieces &= pieces - 1) {
+            long attacks = AttackTables.knightAttacks(Long.numberOfTrailingZeros(pieces));
+            score += weights.knightMobility() * Long.bitCount(attacks & ~own);
+        }
+        for (long pieces = board.getPieceBitboard(teamColor, ChessPiece.PieceType.BISHOP);
+                pieces != 0; pieces &= pieces - 1) {
+            long attacks =
+                    AttackTables.bishopAttacks(Long.numberOfTrailingZeros(pieces), occupied);
+            score += weights.bishopMobility() * Long.bitCount(attacks & ~own);
+        }
+        for (long pieces = board.getPieceBitboard(teamColor, ChessPiece.PieceType.ROOK);
+                pieces != 0; pieces &= pieces - 1) {
+            long attacks = AttackTables.rookAttacks(Long.numberOfTrailingZeros(pieces), occupied);
+            score += weights.rookMobility() * Long.bitCount(attacks & ~own);
+        }
+        for (long pieces = board.getPieceBitboard(teamColor, ChessPiece.PieceType.QUEEN);
+                pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            long attacks = AttackTables.rookAttacks(square, occupied)
+                    | AttackTables.bishopAttacks(square, occupied);
+            score += weights.queenMobility() * Long.bitCount(attacks & ~own);
+        }
+        return score;
+    }
+
+    /**
+     * Rewards pawns sheltering the team's king and penalises enemy knights and sliders that
+     * attack the squares around it
+     */
+    private int kingSafety(ChessBoard board, ChessGame.TeamColor teamColor) {
+        long kings = board.getPieceBitboard(teamColor, ChessPiece.PieceType.KING);
+        if (kings == 0) {
+            return 0;
+        }
+
+        long kingZone = AttackTables.kingAttacks(Long.numberOfTrailingZeros(kings));
+        int shield = Long.bitCount(
+                kingZone & board.getPieceBitboard(teamColor, ChessPiece.PieceType.PAWN));
+
+        ChessGame.TeamColor enemy = teamColor.opponent();
+        long occupied = board.getOccupiedBitboard();
+        int attacks = 0;
+        for (long pieces = board.getPieceBitboard(enemy, ChessPiece.PieceType.KNIGHT);
+                pieces != 0; pieces &= pieces - 1) {
+            attacks += Long.bitCount(
+                    kingZone & AttackTables.knightAttacks(Long.numberOfTrailingZeros(pieces)));
+        }
+        long diagonal = board.getPieceBitboard(enemy, ChessPiece.PieceType.BISHOP)
+                | board.getPieceBitboard(enemy, ChessPiece.PieceType.QUEEN);
+        for (; diagonal != 0; diagonal &= diagonal - 1) {
+            attacks += Long.bitCount(kingZone
+                    & AttackTables.bishopAttacks(Long.numberOfTrailingZeros(diagonal), occupied));
+        }
+        long straight = board.getPieceBitboard(enemy, ChessPiece.PieceType.ROOK)
+                | board.getPieceBitboard(enemy, ChessPiece.PieceType.QUEEN);
+        for (; straight != 0; straight &= straight - 1) {
+            attacks += Long.bitCount(kingZone
+                    & AttackTables.rookAttacks(Long.numberOfTrailingZeros(straight), occupied));
+        }
+
+        return weights.pawnShield() * shield - weights.kingZoneAttack() * attacks;
+    }
+
+    private static int[] tableFor(ChessPiece.PieceType type, boolean endgame) {
+        return switch (type) {
+            case PAWN -> PAWN_TABLE;
+            case KNIGHT -> KNIGHT_TABLE;
+            case BISHOP -> BISHOP_TABLE;
+            case ROOK -> ROOK_TABLE;
+            case QUEEN -> QUEEN_TABLE;
+            case KING -> (endgame ? KING_ENDGAME_TABLE : KING_MIDDLEGAME_TABLE);
+        };
+    }
+
+    /**
+     * Turns a printed table into scores indexed by square for the given team, adding the
+     * piece's material value
+     */
+    private static int[] squareScores(ChessGame.TeamColor teamColor, ChessPiece.PieceType type,
+            int[] table) {
+        int[] scores = new int[64];
+        for (int square = 0; square < 64; square++) {
+            int row = square / 8;
+            int col = square % 8;
+            int printedRow = (teamColor == ChessGame.TeamColor.WHITE ? 7 - row : row);
+            scores[square] = MaterialEvaluator.pieceValue(type) + table[printedRow * 8 + col];
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,401 @@
+package chess.engine;
+
+import chess.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the best move for the side to move with a negamax alpha-beta search. The search deepens
+ * one ply at a time until it runs out of depth, time or nodes, and ends each line with a
+ * quiescence search over captures so it does not stop in the middle of an exchange.
+ * <p>
+ * Moves are tried in order of the previous iteration's principal variation, captures by most
+ * valuable victim and least valuable attacker (MVV-LVA), killer moves, then the history of quiet
+ * moves that caused cutoffs. Results are saved in a {@link TranspositionTable}, which several
+ * searches may share (see {@link ParallelSearch}). A Search is not thread safe, but
+ * {@link #stop()} may be called from any thread.
+ */
+public class Search {
+    public static final int MATE_SCORE = 100_000;
+
+    private static final int INFINITY = MATE_SCORE + 1;
+    private static final int MAX_PLY = SearchLimits.MAX_DEPTH * 2;
+    private static final int LIMIT_CHECK_INTERVAL = 1024;
+
+    private static final int PV_SCORE = 1 << 30;
+    private static final int TABLE_MOVE_SCORE = PV_SCORE - 1;
+    private static final int CAPTURE_SCORE = 1 << 29;
+    private static final int PROMOTION_SCORE = 1 << 28;
+    private static final int FIRST_KILLER_SCORE = 1 << 27;
+    private static final int SECOND_KILLER_SCORE = FIRST_KILLER_SCORE - 1;
+    private static final int MAX_HISTORY_SCORE = SECOND_KILLER_SCORE - 1;
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor teamTurn;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] moveScores = new int[MAX_PLY + 1][];
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[64][64];
+    private final long[] keyHistory = new long[MAX_PLY + 1];
+
+    private int[] previousPv = new int[0];
+    private long nodes;
+    private long deadline;
+    private long maxNodes;
+    private boolean canStop;
+    private volatile boolean stopRequested;
+    private boolean stopped;
+
+    /**
+     * @param game the game to search from, it is not modified
+     */
+    public Search(ChessGame game) {
+        this(game.getBoard(), game.getTeamTurn());
+    }
+
+    /**
+     * @param board the board to search from, it is not modified
+     * @param teamTurn the team to move
+     */
+    public Search(ChessBoard board, ChessGame.TeamColor teamTurn) {
+        this(board, teamTurn, new TranspositionTable(TranspositionTable.DEFAULT_ENTRIES),
+                new PieceSquareEvaluator());
+    }
+
+    /**
+     * @param board the board to search from, it is not modified
+     * @param teamTurn the team to move
+     * @param table the table to save and look up search results in
+     * @param evaluator the evaluator to score positions with, used only by this search
+     */
+    public Search(ChessBoard board, ChessGame.TeamColor teamTurn, TranspositionTable table,
+            Evaluator evaluator) {
+        this.board = board.clone();
+        this.teamTurn = teamTurn;
+        this.table = table;
+        this.evaluator = evaluator;
+        evaluator.reset(this.board);
+        this.board.setPieceListener(evaluator);
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            moveLists[ply] = new MoveList(64);
+            moveScores[ply] = new int[64];
+        }
+    }
+
+    /**
+     * Searches the position until one of the limits is reached
+     *
+     * @param limits when to stop searching
+     * @return the result of the deepest iteration that finished
+     */
+    public SearchResult search(SearchLimits limits) {
+        return search(limits, 1);
+    }
+
+    /**
+     * Searches the position, starting the iterative deepening at the given depth
+     *
+     * @param limits when to stop searching
+     * @param firstDepth the depth of the first iteration
+     * @return the result of the deepest iteration that finished
+     */
+    SearchResult search(SearchLimits limits, int firstDepth) {
+        long start = System.nanoTime();
+        long timeNanos = Math.min(limits.timeMillis(), Long.MAX_VALUE / 1_000_000) * 1_000_000;
+        deadline = (timeNanos > Long.MAX_VALUE - start ? Long.MAX_VALUE : start + timeNanos);
+        maxNodes = limits.maxNodes();
+        nodes = 0;
+        stopped = false;
+        canStop = false;
+        previousPv = new int[0];
+
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.min(firstDepth, limits.maxDepth()); depth <= limits.maxDepth();
+                depth++) {
+            int score = negamax(depth, 0, -INFINITY, INFINITY, teamTurn);
+            if (stopped) {
+                break;
+            }
+
+            bestScore = score;
+            completedDepth = depth;
+            previousPv = new int[pvLength[0]];
+            System.arraycopy(pvTable[0], 0, previousPv, 0, pvLength[0]);
+            canStop = true;
+
+            if (previousPv.length == 0 || Math.abs(score) >= MATE_SCORE - MAX_PLY) {
+                break;
+            }
+        }
+
+        List<ChessMove> principalVariation = new ArrayList<>(previousPv.length);
+        for (int move : previousPv) {
+            principalVariation.add(PackedMove.toChessMove(move));
+        }
+        ChessMove bestMove = (principalVariation.isEmpty() ? null : principalVariation.get(0));
+        stopRequested = false;
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes,
+                System.nanoTime() - start, List.copyOf(principalVariation));
+    }
+
+    /**
+     * Asks a running search to stop. The search returns the result of its last finished
+     * iteration. If no search is running yet, the next one stops after its first iteration.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta, ChessGame.TeamColor teamColor) {
+        pvLength[ply] = 0;
+        if (shouldStop()) {
+            return 0;
+        }
+
+        keyHistory[ply] = Zobrist.position(board, teamColor);
+        if (ply > 0 && isRepetition(ply)) {
+            return 0;
+        }
+
+        boolean inCheck = MoveGenerator.isKingAttacked(board, teamColor);
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(ply, alpha, beta, teamColor);
+        }
+        nodes++;
+
+        long key = keyHistory[ply];
+        int tableMove = -1;
+        long entry = table.probe(key);
+        if (entry != 0) {
+            tableMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, teamColor, moves);
+        if (moves.isEmpty()) {
+            return (inCheck ? -MATE_SCORE + ply : 0);
+        }
+        scoreMoves(moves, ply, pvMove(ply), tableMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            board.makeMove(move);
+            int score = -negamax(depth - 1, ply + 1, -beta, -alpha, teamColor.opponent());
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+            }
+            if (alpha >= beta) {
+                if (!PackedMove.isCapture(move) && PackedMove.promotion(move) == null) {
+                    storeKiller(ply, move);
+                    addHistory(move, depth);
+                }
+                break;
+            }
+        }
+
+        int bound = (bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                : bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT);
+        table.store(key, PackedMove.withoutFlags(bestMove), scoreToTable(bestScore, ply), depth,
+                bound);
+        return bestScore;
+    }
+
+    private int quiesce(int ply, int alpha, int beta, ChessGame.TeamColor teamColor) {
+        pvLength[ply] = 0;
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+
+        int standPat = evaluator.evaluate(board, teamColor);
+        if (standPat >= beta || ply >= MAX_PLY) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, teamColor, moves);
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.isCapture(move) || PackedMove.promotion(move) != null) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+        scoreMoves(moves, ply, -1, -1);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = nextMove(moves, ply, i);
+            board.makeMove(move);
+            int score = -quiesce(ply + 1, -beta, -alpha, teamColor.opponent());
+            board.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private boolean shouldStop() {
+        if (stopped) {
+            return true;
+        }
+        // the first iteration always finishes so there is a move to return
+        if (canStop && (stopRequested || nodes >= maxNodes
+                || (nodes % LIMIT_CHECK_INTERVAL == 0 && System.nanoTime() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private boolean isRepetition(int ply) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (keyHistory[i] == keyHistory[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int pvMove(int ply) {
+        return (ply < previousPv.length ? PackedMove.withoutFlags(previousPv[ply]) : -1);
+    }
+
+    /**
+     * Mate scores count plies from the root, so they are stored counted from the position
+     * itself and converted back when read at another ply
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score + ply;
+        }
+        return (score <= -MATE_SCORE + MAX_PLY ? score - ply : score);
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_SCORE - MAX_PLY) {
+            return score - ply;
+        }
+        return (score <= -MATE_SCORE + MAX_PLY ? score + ply : score);
+    }
+
+    private void scoreMoves(MoveList moves, int ply, int pvMove, int tableMove) {
+        if (moveScores[ply].length < moves.size()) {
+            moveScores[ply] = new int[moves.size()];
+        }
+
+        int[] scores = moveScores[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.withoutFlags(move) == pvMove) {
+                scores[i] = PV_SCORE;
+            } else if (PackedMove.withoutFlags(move) == tableMove) {
+                scores[i] = TABLE_MOVE_SCORE;
+            } else if (PackedMove.isCapture(move)) {
+                scores[i] = CAPTURE_SCORE + mvvLva(move);
+            } else if (PackedMove.promotion(move) != null) {
+                scores[i] = PROMOTION_SCORE
+                        + MaterialEvaluator.pieceValue(PackedMove.promotion(move));
+            } else if (move == killers[ply][0]) {
+                scores[i] = FIRST_KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                scores[i] = SECOND_KILLER_SCORE;
+            } else {
+                scores[i] = history[PackedMove.from(move)][PackedMove.to(move)];
+            }
+        }
+    }
+
+    private int mvvLva(int move) {
+        ChessPiece victim = board.getPiece(ChessPosition.fromSquare(PackedMove.to(move)));
+        ChessPiece attacker = board.getPiece(ChessPosition.fromSquare(PackedMove.from(move)));
+        // an en passant capture lands on an empty square
+        ChessPiece.PieceType victimType =
+                (victim == null ? ChessPiece.PieceType.PAWN : victim.getPieceType());
+        return MaterialEvaluator.pieceValue(victimType) * 16
+                - attacker.getPieceType().ordinal();
+    }
+
+    /**
+     * Swaps the highest scored of the remaining moves into the given index and returns it, so
+     * moves are sorted only as far as the search gets before a cutoff
+     */
+    private int nextMove(MoveList moves, int ply, int index) {
+        int[] scores = moveScores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        if (best != index) {
+            moves.swap(index, best);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    private void updatePv(int ply, int move) {
+        pvTable[ply][0] = move;
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private void addHistory(int move, int depth) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        history[from][to] = Math.min(MAX_HISTORY_SCORE, history[from][to] + depth * depth);
+    }
+}
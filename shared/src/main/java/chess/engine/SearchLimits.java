@@ -0,0 +1,47 @@
+package chess.engine;
+
+/**
+ * How long a search may run. The search stops at whichever limit it reaches first, but always
+ * finishes at least a depth 1 search so it has a move to return.
+ *
+ * @param maxDepth the deepest iteration to search, in plies
+ * @param timeMillis the most wall clock time to spend, in milliseconds
+ * @param maxNodes the most positions to visit
+ */
+public record SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException(
+                    "Search depth must be between 1 and " + MAX_DEPTH + ": " + maxDepth);
+        }
+        if (timeMillis <= 0 || maxNodes <= 0) {
+            throw new IllegalArgumentException("Search time and node limits must be positive");
+        }
+    }
+
+    /**
+     * @param maxDepth the depth to search to, in plies
+     * @return limits that stop only at the given depth
+     */
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(maxDepth, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param timeMillis the time to search for, in milliseconds
+     * @return limits that stop only when the time runs out
+     */
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, timeMillis, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param maxNodes the number of positions to visit
+     * @return limits that stop only when the node budget runs out
+     */
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, maxNodes);
+    }
+}
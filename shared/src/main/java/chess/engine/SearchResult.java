@@ -0,0 +1,33 @@
+package chess.engine;
+
+import chess.ChessMove;
+import java.util.List;
+
+/**
+ * The outcome of a search
+ *
+ * @param bestMove the move the engine would play, or null if the side to move has no moves
+ * @param score the score of the position for the side to move, in centipawns
+ * @param depth the deepest iteration that finished
+ * @param nodes the number of positions visited, including quiescence
+ * @param elapsedNanos how long the search ran
+ * @param principalVariation the line the engine expects to be played, starting with the best
+ *        move
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes,
+        long elapsedNanos, List<ChessMove> principalVariation) {
+
+    /**
+     * @return the number of positions visited per second of search
+     */
+    public long nodesPerSecond() {
+        return (elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos);
+    }
+
+    /**
+     * @return True if the score is a forced checkmate for either side
+     */
+    public boolean isMateScore() {
+        return Math.abs(score) >= Search.MATE_SCORE - SearchLimits.MAX_DEPTH * 2;
+    }
+}
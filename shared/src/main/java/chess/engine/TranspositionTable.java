@@ -0,0 +1,120 @@
+package chess.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size table of search results keyed by position, safe to share between search threads
+ * without locks.
+ * <p>
+ * Each slot holds two longs: the entry's data and the position key XORed with that data. Writes
+ * from different threads can interleave, but a torn slot no longer XORs back to the key being
+ * probed, so it reads as a miss instead of as another position's result.
+ * <p>
+ * Entry data packs the best move in bits 0-15, the score plus {@code SCORE_OFFSET} in bits
+ * 16-35, the depth in bits 36-43, the bound in bits 44-45 and a set bit 46 marking the slot used.
+ */
+public class TranspositionTable {
+    public static final int DEFAULT_ENTRIES = 1 << 16;
+
+    static final int EXACT = 0;
+    static final int LOWER_BOUND = 1;
+    static final int UPPER_BOUND = 2;
+
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final long USED = 1L << 46;
+    private static final int SCORE_OFFSET = 1 << 19;
+    private static final long MOVE_MASK = 0xFFFF;
+    private static final long SCORE_MASK = 0xFFFFF;
+    private static final long DEPTH_MASK = 0xFF;
+    private static final long BOUND_MASK = 0x3;
+
+    private final AtomicLongArray slots;
+    private final int indexMask;
+
+    /**
+     * @param entries the number of positions to hold, rounded down to a power of two
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public TranspositionTable(int entries) {
+        if (entries <= 0) {
+            throw new IllegalArgumentException("Table size must be positive: " + entries);
+        }
+
+        int size = Integer.highestOneBit(entries);
+        slots = new AtomicLongArray(size * 2);
+        indexMask = size - 1;
+    }
+
+    /**
+     * @return the number of positions the table holds
+     */
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * Empties the table. Must not be called while a search is using it.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.setPlain(i, 0);
+        }
+    }
+
+    /**
+     * @param key the position key
+     * @return the packed entry for the position, or 0 if the table does not hold it
+     */
+    long probe(long key) {
+        int slot = slotFor(key);
+        long data = slots.getOpaque(slot + 1);
+        long check = slots.getOpaque(slot);
+        return ((check ^ data) == key && (data & USED) != 0 ? data : 0);
+    }
+
+    /**
+     * Saves a search result, replacing the slot's entry unless it holds the same position from
+     * a deeper search
+     *
+     * @param key the position key
+     * @param move the best packed move found, or 0 if there is none
+     * @param score the score, already adjusted for table storage
+     * @param depth the depth searched
+     * @param bound whether the score is exact, a lower bound or an upper bound
+     */
+    void store(long key, int move, int score, int depth, int bound) {
+        int slot = slotFor(key);
+        long oldData = slots.getOpaque(slot + 1);
+        long oldKey = slots.getOpaque(slot) ^ oldData;
+        if (oldKey == key && depth(oldData) > depth && bound != EXACT) {
+            return;
+        }
+
+        long data = (move & MOVE_MASK) | (long) (score + SCORE_OFFSET) << SCORE_SHIFT
+                | (long) depth << DEPTH_SHIFT | (long) bound << BOUND_SHIFT | USED;
+        slots.setOpaque(slot, key ^ data);
+        slots.setOpaque(slot + 1, data);
+    }
+
+    static int move(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    static int score(long data) {
+        return (int) (data >>> SCORE_SHIFT & SCORE_MASK) - SCORE_OFFSET;
+    }
+
+    static int depth(long data) {
+        return (int) (data >>> DEPTH_SHIFT & DEPTH_MASK);
+    }
+
+    static int bound(long data) {
+        return (int) (data >>> BOUND_SHIFT & BOUND_MASK);
+    }
+
+    private int slotFor(long key) {
+        return ((int) key & indexMask) * 2;
+    }
+}
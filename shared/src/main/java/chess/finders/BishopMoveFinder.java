@@ -1,22 +1,32 @@
 package chess.finders;
 
 import java.util.Collection;
-import java.util.HashSet;
 
+import chess.AttackTables;
 import chess.ChessBoard;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPosition;
+import chess.MoveList;
 
 public class BishopMoveFinder extends ExtendedMove {
 
-    private Collection<ChessMove> moves = new HashSet<>();
-    private int directions[][] = {{1, 1}, {1, -1}, {-1, -1}, {-1, 1}};
+    private static final int[] DIRECTIONS = {AttackTables.NORTH_EAST, AttackTables.NORTH_WEST,
+            AttackTables.SOUTH_EAST, AttackTables.SOUTH_WEST};
+
+    private Collection<ChessMove> moves;
 
     public BishopMoveFinder(ChessBoard board, ChessPosition myPosition,
             ChessGame.TeamColor currentTeam) {
         super();
-        findLoopedMoves(directions, board, myPosition, currentTeam, moves);
+        MoveList packedMoves = new MoveList(32);
+        findMoves(board, myPosition.getSquare(), currentTeam, packedMoves);
+        moves = packedMoves.toChessMoves();
+    }
+
+    public static void findMoves(ChessBoard board, int square, ChessGame.TeamColor currentTeam,
+            MoveList moves) {
+        findLoopedMoves(DIRECTIONS, board, square, currentTeam, moves);
     }
 
     public Collection<ChessMove> getMoves() {
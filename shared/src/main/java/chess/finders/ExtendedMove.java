@@ -1,6 +1,5 @@
 package chess.finders;
 
-import java.util.Collection;
 import chess.*;
 
 public class ExtendedMove extends PositionChecker {
@@ -9,23 +8,20 @@ public class ExtendedMove extends PositionChecker {
         super();
     }
 
-    public void findLoopedMoves(int[][] directions, ChessBoard board, ChessPosition myPosition,
-            ChessGame.TeamColor currentTeam, Collection<ChessMove> validPositions) {
+    public static void findLoopedMoves(int[] directions, ChessBoard board, int square,
+            ChessGame.TeamColor currentTeam, MoveList validMoves) {
 
-        for (int[] direction : directions) {
-            ChessPosition newPosition = new ChessPosition(myPosition.getRow() + direction[0],
-                    myPosition.getColumn() + direction[1]);
+        long occupied = board.getOccupiedBitboard();
+        long friendly = board.getTeamBitboard(currentTeam);
 
-            while (newPosition.inBounds()) {
-                ChessMove move = new ChessMove(myPosition, newPosition, null);
-                ChessPiece targetPiece = board.getPiece(newPosition);
+        for (int direction : directions) {
+            for (int target : AttackTables.ray(square, direction)) {
+                long mask = 1L << target;
 
-                if (isNull(targetPiece)) {
-                    validPositions.add(move);
-                    newPosition = new ChessPosition(newPosition.getRow() + direction[0],
-                            newPosition.getColumn() + direction[1]);
-                } else if (isEnemyPosition(targetPiece, currentTeam)) {
-                    validPositions.add(move);
+                if ((occupied & mask) == 0) {
+                    validMoves.add(PackedMove.encode(square, target, null, 0));
+                } else if ((friendly & mask) == 0) { // is enemy position
+                    validMoves.add(PackedMove.encode(square, target, null, PackedMove.CAPTURE));
                     break;
                 } else { // is friendly position
                     break;
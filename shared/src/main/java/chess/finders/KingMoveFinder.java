@@ -1,23 +1,70 @@
 package chess.finders;
 
 import java.util.Collection;
-import java.util.HashSet;
 
+import chess.AttackTables;
 import chess.ChessBoard;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPosition;
+import chess.ChessPiece;
+import chess.MoveList;
+import chess.PackedMove;
 
 public class KingMoveFinder extends SimpleMove {
 
-    private Collection<ChessMove> moves = new HashSet<>();
-    private int directions[][] =
-            {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1},};
+    private Collection<ChessMove> moves;
 
     public KingMoveFinder(ChessBoard board, ChessPosition myPosition,
             ChessGame.TeamColor currentTeam) {
         super();
-        findSimpleMoves(directions, board, myPosition, currentTeam, moves);
+        MoveList packedMoves = new MoveList(32);
+        findMoves(board, myPosition.getSquare(), currentTeam, packedMoves);
+        moves = packedMoves.toChessMoves();
+    }
+
+    public static void findMoves(ChessBoard board, int square, ChessGame.TeamColor currentTeam,
+            MoveList moves) {
+        findSimpleMoves(AttackTables.kingAttacks(square), board, square, currentTeam, moves);
+        findCastlingMoves(board, square, currentTeam, moves);
+    }
+
+    /**
+     * Adds the castling moves the team still has the right to make, if the squares between king
+     * and rook are empty and the king does not start in or pass through check. Whether the king
+     * ends in check is left to the legality check every move gets.
+     */
+    private static void findCastlingMoves(ChessBoard board, int square,
+            ChessGame.TeamColor currentTeam, MoveList moves) {
+        boolean white = (currentTeam == ChessGame.TeamColor.WHITE);
+        int home = (white ? 4 : 60);
+        int kingside = (white ? ChessBoard.WHITE_KINGSIDE : ChessBoard.BLACK_KINGSIDE);
+        int queenside = (white ? ChessBoard.WHITE_QUEENSIDE : ChessBoard.BLACK_QUEENSIDE);
+        int rights = board.getCastlingRights() & (kingside | queenside);
+        if (square != home || rights == 0) {
+            return;
+        }
+
+        ChessGame.TeamColor enemy = currentTeam.opponent();
+        if (AttackTables.isSquareAttacked(board, home, enemy)) {
+            return;
+        }
+
+        long occupied = board.getOccupiedBitboard();
+        long rooks = board.getPieceBitboard(currentTeam, ChessPiece.PieceType.ROOK);
+        boolean canCastleKingside = (rights & kingside) != 0 && (rooks & 1L << home + 3) != 0
+                && (occupied & (1L << home + 1 | 1L << home + 2)) == 0
+                && !AttackTables.isSquareAttacked(board, home + 1, enemy);
+        if (canCastleKingside) {
+            moves.add(PackedMove.encode(home, home + 2, null, PackedMove.CASTLE));
+        }
+
+        boolean canCastleQueenside = (rights & queenside) != 0 && (rooks & 1L << home - 4) != 0
+                && (occupied & (1L << home - 1 | 1L << home - 2 | 1L << home - 3)) == 0
+                && !AttackTables.isSquareAttacked(board, home - 1, enemy);
+        if (canCastleQueenside) {
+            moves.add(PackedMove.encode(home, home - 2, null, PackedMove.CASTLE));
+        }
     }
 
     public Collection<ChessMove> getMoves() {
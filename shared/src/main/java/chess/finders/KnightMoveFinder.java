@@ -1,23 +1,29 @@
 package chess.finders;
 
 import java.util.Collection;
-import java.util.HashSet;
 
+import chess.AttackTables;
 import chess.ChessBoard;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPosition;
+import chess.MoveList;
 
 public class KnightMoveFinder extends SimpleMove {
 
-    private Collection<ChessMove> moves = new HashSet<>();
-    private int directions[][] =
-            {{2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}, {1, -2}, {2, -1},};
+    private Collection<ChessMove> moves;
 
     public KnightMoveFinder(ChessBoard board, ChessPosition myPosition,
             ChessGame.TeamColor currentTeam) {
         super();
-        findSimpleMoves(directions, board, myPosition, currentTeam, moves);
+        MoveList packedMoves = new MoveList(32);
+        findMoves(board, myPosition.getSquare(), currentTeam, packedMoves);
+        moves = packedMoves.toChessMoves();
+    }
+
+    public static void findMoves(ChessBoard board, int square, ChessGame.TeamColor currentTeam,
+            MoveList moves) {
+        findSimpleMoves(AttackTables.knightAttacks(square), board, square, currentTeam, moves);
     }
 
     public Collection<ChessMove> getMoves() {
@@ -1,113 +1,79 @@
 package chess.finders;
 
 import java.util.Collection;
-import java.util.HashSet;
 
+import chess.AttackTables;
 import chess.ChessBoard;
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.ChessPiece;
 import chess.ChessPosition;
+import chess.MoveList;
+import chess.PackedMove;
 
 public class PawnMoveFinder extends PositionChecker {
-    private Collection<ChessMove> moves = new HashSet<>();
-    private HashSet<int[]> directions = new HashSet<>();
-
-    private final ChessGame.TeamColor currentTeam;
-    private final ChessPosition myPosition;
-    private final ChessBoard board;
-
-    private int forward = 1;
-    private boolean canPromote = false;
-    private ChessPiece.PieceType[] promotionPieces = {ChessPiece.PieceType.QUEEN,
+    private static final ChessPiece.PieceType[] PROMOTION_PIECES = {ChessPiece.PieceType.QUEEN,
             ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK};
 
+    private Collection<ChessMove> moves;
+
     public PawnMoveFinder(ChessBoard board, ChessPosition myPosition,
             ChessGame.TeamColor currentTeam) {
         super();
-        this.board = board;
-        this.myPosition = myPosition;
-        this.currentTeam = currentTeam;
-        defineForward(currentTeam);
-        defineDirections(myPosition);
+        MoveList packedMoves = new MoveList(16);
+        findMoves(board, myPosition.getSquare(), currentTeam, packedMoves);
+        moves = packedMoves.toChessMoves();
     }
 
     public Collection<ChessMove> getMoves() {
-        for (int[] direction : directions) {
-            ChessPosition newPosition = new ChessPosition(myPosition.getRow() + direction[0],
-                    myPosition.getColumn() + direction[1]);
-
-            if (!newPosition.inBounds()) {
-                continue;
-            }
-
-            ChessPiece targetPiece = board.getPiece(newPosition);
-            determinePromotion(newPosition);
-
-            boolean straightMove = (direction[1] == 0);
-            boolean diagMove = (direction[1] == 1 | direction[1] == -1);
-            if (isNull(targetPiece)) {
-                if (straightMove) {
-                    addMove(newPosition);
-                }
-            } else if (isEnemyPosition(targetPiece, currentTeam) & diagMove) {
-                addMove(newPosition);
-            }
-        }
         return moves;
     }
 
-    private void defineForward(ChessGame.TeamColor currentTeam) {
-        if (currentTeam == ChessGame.TeamColor.BLACK) {
-            forward = -1;
-        }
-    }
-
-    private void defineDirections(ChessPosition myPosition) {
-        int[] straight = {forward, 0};
-        int[] diagLeft = {forward, -1};
-        int[] diagRight = {forward, 1};
-
-        directions.add(straight);
-        directions.add(diagLeft);
-        directions.add(diagRight);
-
-        defineFirstMove(myPosition);
-    }
-
-    private void defineFirstMove(ChessPosition myPosition) {
-        boolean firstWhiteMove =
-                (currentTeam == ChessGame.TeamColor.WHITE & myPosition.getRow() == 2);
-        boolean firstBlackMove =
-                (currentTeam == ChessGame.TeamColor.BLACK & myPosition.getRow() == 7);
-
-        if ((!firstWhiteMove & !firstBlackMove)) {
-            return;
+    public static void findMoves(ChessBoard board, int square, ChessGame.TeamColor currentTeam,
+            MoveList moves) {
+        boolean white = (currentTeam == ChessGame.TeamColor.WHITE);
+        int forward = (white ? 8 : -8);
+        int firstMoveRow = (white ? 1 : 6);
+        long occupied = board.getOccupiedBitboard();
+
+        int oneForward = square + forward;
+        boolean oneForwardClear =
+                (oneForward >= 0 && oneForward < 64 && (occupied & 1L << oneForward) == 0);
+        if (oneForwardClear) {
+            addMove(square, oneForward, 0, moves);
+
+            int twoForward = oneForward + forward;
+            if (square / 8 == firstMoveRow && (occupied & 1L << twoForward) == 0) {
+                addMove(square, twoForward, 0, moves);
+            }
         }
 
-        ChessPiece oneForward = board
-                .getPiece(new ChessPosition(myPosition.getRow() + forward, myPosition.getColumn()));
-
-        boolean firstMoveClear = (oneForward == null);
-        if (firstMoveClear) {
-            int[] firstMove = {2 * forward, 0};
-            directions.add(firstMove);
+        long enemies = occupied ^ board.getTeamBitboard(currentTeam);
+        long captures = AttackTables.pawnAttacks(currentTeam, square) & enemies;
+        while (captures != 0) {
+            int target = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addMove(square, target, PackedMove.CAPTURE, moves);
         }
-    }
 
-    private void determinePromotion(ChessPosition newPosition) {
-        if (newPosition.getRow() == 1 | newPosition.getRow() == 8) {
-            canPromote = true;
+        // the en passant square is only this team's to use if the enemy just skipped over it
+        int enPassantSquare = board.getEnPassantSquare();
+        boolean canCaptureEnPassant = (enPassantSquare / 8 == (white ? 5 : 2)
+                && (AttackTables.pawnAttacks(currentTeam, square) & 1L << enPassantSquare) != 0);
+        if (canCaptureEnPassant) {
+            moves.add(PackedMove.encode(square, enPassantSquare, null,
+                    PackedMove.CAPTURE | PackedMove.EN_PASSANT));
         }
     }
 
-    private void addMove(ChessPosition newPosition) {
+    private static void addMove(int from, int to, int flags, MoveList moves) {
+        boolean canPromote = (to / 8 == 0 | to / 8 == 7);
         if (canPromote) {
-            for (ChessPiece.PieceType piece : promotionPieces) {
-                moves.add(new ChessMove(myPosition, newPosition, piece));
+            for (ChessPiece.PieceType piece : PROMOTION_PIECES) {
+                moves.add(PackedMove.encode(from, to, piece, flags));
             }
         } else {
-            moves.add(new ChessMove(myPosition, newPosition, null));
+            moves.add(PackedMove.encode(from, to, null, flags));
         }
     }
 }
@@ -1,6 +1,5 @@
 package chess.finders;
 
-import java.util.Collection;
 import chess.*;
 
 public abstract class SimpleMove extends PositionChecker {
@@ -9,26 +8,19 @@ public abstract class SimpleMove extends PositionChecker {
         super();
     }
 
-    public void findSimpleMoves(int[][] directions, ChessBoard board, ChessPosition myPosition,
-            ChessGame.TeamColor currentTeam, Collection<ChessMove> validPositions) {
+    public static void findSimpleMoves(long targets, ChessBoard board, int square,
+            ChessGame.TeamColor currentTeam, MoveList validMoves) {
 
-        for (int[] direction : directions) {
-            ChessPosition newPosition = new ChessPosition(myPosition.getRow() + direction[0],
-                    myPosition.getColumn() + direction[1]);
+        long friendly = board.getTeamBitboard(currentTeam);
+        long enemies = board.getOccupiedBitboard() ^ friendly;
+        targets &= ~friendly;
 
-            if (!newPosition.inBounds()) {
-                continue;
-            }
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
 
-            ChessMove move = new ChessMove(myPosition, newPosition, null);
-            ChessPiece targetPiece = board.getPiece(newPosition);
-            if (isNull(targetPiece)) {
-                validPositions.add(move);
-            } else if (isEnemyPosition(targetPiece, currentTeam)) {
-                validPositions.add(move);
-            } else { // is friendly position
-                continue;
-            }
+            int flags = ((enemies & 1L << target) != 0 ? PackedMove.CAPTURE : 0);
+            validMoves.add(PackedMove.encode(square, target, null, flags));
         }
     }
 }
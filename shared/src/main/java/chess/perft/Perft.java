@@ -0,0 +1,178 @@
+package chess.perft;
+
+import chess.*;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree below a position (perft). Comparing the counts
+ * with published values checks the move generator, and timing them measures its throughput.
+ */
+public class Perft {
+    public static final List<PerftPosition> REFERENCE_POSITIONS = List.of(
+            new PerftPosition("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq -",
+                    20, 400, 8902, 197281),
+            new PerftPosition("kiwipete",
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -", 48, 2039,
+                    97862, 4085603),
+            new PerftPosition("position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -", 14, 191,
+                    2812, 43238, 674624),
+            new PerftPosition("position 4",
+                    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq -", 6, 264, 9467,
+                    422333),
+            new PerftPosition("position 5",
+                    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ -", 44, 1486, 62379,
+                    2103487),
+            new PerftPosition("position 6",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - -", 46,
+                    2079, 89890, 3894594));
+
+    private final ChessBoard board;
+    private final ChessGame.TeamColor teamTurn;
+    private MoveList[] moveLists = new MoveList[0];
+
+    /**
+     * @param game the game whose current position to count from, it is not modified
+     */
+    public Perft(ChessGame game) {
+        board = game.getBoard().clone();
+        teamTurn = game.getTeamTurn();
+    }
+
+    /**
+     * @param depth the number of plies to search
+     * @return the number of legal move sequences of exactly the given length
+     */
+    public long perft(int depth) {
+        ensureDepth(depth);
+        return perft(teamTurn, depth, 0);
+    }
+
+    /**
+     * Runs perft below each legal move of the side to move, which narrows down where a wrong
+     * count comes from
+     *
+     * @param depth the number of plies to search, including the first move
+     * @return the node count below each first move
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        ensureDepth(Math.max(depth, 1));
+        MoveList moves = moveLists[0];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, teamTurn, moves);
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            counts.put(PackedMove.toChessMove(move), perft(teamTurn.opponent(), depth - 1, 1));
+            board.unmakeMove();
+        }
+        return counts;
+    }
+
+    private long perft(ChessGame.TeamColor teamColor, int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, teamColor, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            nodes += perft(teamColor.opponent(), depth - 1, ply + 1);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private void ensureDepth(int depth) {
+        if (moveLists.length >= depth) {
+            return;
+        }
+
+        MoveList[] newLists = new MoveList[depth];
+        System.arraycopy(moveLists, 0, newLists, 0, moveLists.length);
+        for (int i = moveLists.length; i < depth; i++) {
+            newLists[i] = new MoveList();
+        }
+        moveLists = newLists;
+    }
+
+    /**
+     * Runs the perft suite, or divides a single position.
+     * <p>
+     * Usage: {@code Perft [maxDepth]} runs every reference position up to the given depth, and
+     * {@code Perft divide <depth> <fen>} prints the node count below each move of a position.
+     */
+    public static void main(String[] args) {
+        if (args.length >= 3 && args[0].equals("divide")) {
+            int depth = Integer.parseInt(args[1]);
+            String fen = String.join(" ", List.of(args).subList(2, args.length));
+            runDivide(fen, depth);
+            return;
+        }
+
+        int maxDepth = (args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE);
+        if (!runSuite(maxDepth)) {
+            System.exit(1);
+        }
+    }
+
+    private static void runDivide(String fen, int depth) {
+        long total = 0;
+        for (var entry : new Perft(ChessGame.fromFen(fen)).divide(depth).entrySet()) {
+            ChessMove move = entry.getKey();
+            String promotion = (move.getPromotionPiece() == null ? ""
+                    : "=" + move.getPromotionPiece().toString().toLowerCase());
+            System.out.printf("%s-%s%s: %d%n", squareName(move.getStartPosition()),
+                    squareName(move.getEndPosition()), promotion, entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.printf("total: %d%n", total);
+    }
+
+    private static boolean runSuite(int maxDepth) {
+        boolean passed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+
+        for (PerftPosition position : REFERENCE_POSITIONS) {
+            var perft = new Perft(ChessGame.fromFen(position.fen()));
+            for (int depth = 1; depth <= Math.min(maxDepth, position.maxDepth()); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.perft(depth);
+                long nanos = System.nanoTime() - start;
+
+                boolean correct = (nodes == position.expectedNodes(depth));
+                passed &= correct;
+                totalNodes += nodes;
+                totalNanos += nanos;
+
+                System.out.printf("%-12s depth %d: %,14d nodes %s %8.1f ms %,14d nodes/s%n",
+                        position.name(), depth, nodes,
+                        (correct ? "ok  " : "FAIL, expected " + position.expectedNodes(depth)),
+                        nanos / 1e6, nodesPerSecond(nodes, nanos));
+            }
+        }
+
+        System.out.printf("total: %,d nodes in %.1f ms, %,d nodes/s%n", totalNodes,
+                totalNanos / 1e6, nodesPerSecond(totalNodes, totalNanos));
+        return passed;
+    }
+
+    private static String squareName(ChessPosition position) {
+        return "" + (char) ('a' + position.getColumn() - 1) + position.getRow();
+    }
+
+    private static long nodesPerSecond(long nodes, long nanos) {
+        return (nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos);
+    }
+}
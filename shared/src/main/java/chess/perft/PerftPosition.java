@@ -0,0 +1,26 @@
+package chess.perft;
+
+/**
+ * A reference position for perft along with its published leaf node counts
+ *
+ * @param name a short name for the position
+ * @param fen the position in FEN notation
+ * @param expectedNodes the node count at depth 1, 2, ... in order
+ */
+public record PerftPosition(String name, String fen, long... expectedNodes) {
+
+    /**
+     * @return the deepest depth with a known node count
+     */
+    public int maxDepth() {
+        return expectedNodes.length;
+    }
+
+    /**
+     * @param depth the depth to look up, starting at 1
+     * @return the published node count at the given depth
+     */
+    public long expectedNodes(int depth) {
+        return expectedNodes[depth - 1];
+    }
+}
@@ -0,0 +1,4 @@
+package requests;
+
+public record HintRequest(int gameID, Long timeMillis) {
+}
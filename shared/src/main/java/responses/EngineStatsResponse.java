@@ -0,0 +1,6 @@
+package responses;
+
+public record EngineStatsResponse(int threads, int activeSearches, int queuedSearches,
+        int queueCapacity, long completedSearches, long rejectedSearches,
+        long averageQueueMillis, long averageSearchMillis) {
+}
@@ -0,0 +1,7 @@
+package responses;
+
+import chess.ChessMove;
+
+public record HintResponse(ChessMove move, int score, int depth, long nodes,
+        long nodesPerSecond) {
+}
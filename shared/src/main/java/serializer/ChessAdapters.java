@@ -0,0 +1,197 @@
+package serializer;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Gson type adapters that write chess pieces and boards compactly. A piece is written as its
+ * one letter code, uppercase for white ({@code "K"}, {@code "p"}), and a board as an object
+ * holding its FEN piece placement, castling rights and en passant square:
+ *
+ * <pre>
+ * {"placement":"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR","castling":15,"enPassant":-1}
+ * </pre>
+ *
+ * Older formats are still read: pieces written field by field ({@code {"pieceColor":"WHITE",
+ * "type":"KING"}}), boards written as the original 8 by 8 {@code squares} array of such pieces,
+ * and boards written field by field as bitboards. A board in none of these formats is rejected
+ * rather than read as an empty board.
+ */
+public final class ChessAdapters {
+    private static final int BOARD_LENGTH = 8;
+
+    private ChessAdapters() {}
+
+    /**
+     * @param builder the builder to add the adapters to
+     * @return the same builder
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return builder.registerTypeAdapterFactory(new Factory());
+    }
+
+    private static class Factory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() == ChessPiece.class) {
+                return (TypeAdapter<T>) new PieceAdapter(
+                        gson.getDelegateAdapter(this, TypeToken.get(ChessPiece.class)));
+            }
+            if (type.getRawType() == ChessBoard.class) {
+                return (TypeAdapter<T>) new BoardAdapter(
+                        gson.getDelegateAdapter(this, TypeToken.get(ChessBoard.class)),
+                        gson.getAdapter(JsonElement.class));
+            }
+            return null;
+        }
+    }
+
+    private static class PieceAdapter extends TypeAdapter<ChessPiece> {
+        private final TypeAdapter<ChessPiece> legacy;
+
+        PieceAdapter(TypeAdapter<ChessPiece> legacy) {
+            this.legacy = legacy;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            if (piece == null) {
+                out.nullValue();
+                return;
+            }
+            out.value(piece.toString());
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.STRING) {
+                return legacy.read(in);
+            }
+
+            String code = in.nextString();
+            ChessPiece piece = (code.length() == 1 ? ChessPiece.fromLetter(code.charAt(0)) : null);
+            if (piece == null) {
+                throw new JsonSyntaxException("Unknown piece code: " + code);
+            }
+            return piece;
+        }
+    }
+
+    private static class BoardAdapter extends TypeAdapter<ChessBoard> {
+        private final TypeAdapter<ChessBoard> legacy;
+        private final TypeAdapter<JsonElement> elements;
+
+        BoardAdapter(TypeAdapter<ChessBoard> legacy, TypeAdapter<JsonElement> elements) {
+            this.legacy = legacy;
+            this.elements = elements;
+        }
+
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            if (board == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("placement").value(Fen.formatPlacement(board));
+            out.name("castling").value(board.getCastlingRights());
+            out.name("enPassant").value(board.getEnPassantSquare());
+            out.endObject();
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            JsonElement element = elements.read(in);
+            if (!element.isJsonObject()) {
+                throw new JsonSyntaxException("Expected a board object but was " + element);
+            }
+
+            JsonObject object = element.getAsJsonObject();
+            if (object.has("squares")) {
+                return readSquares(object.get("squares"));
+            }
+            if (object.has("pieceBoards")) {
+                return legacy.fromJsonTree(object);
+            }
+            if (!object.has("placement")) {
+                throw new JsonSyntaxException("Unknown board format: " + object.keySet());
+            }
+
+            try {
+                ChessBoard board = Fen.parsePlacement(object.get("placement").getAsString());
+                if (object.has("castling")) {
+                    board.setCastlingRights(object.get("castling").getAsInt());
+                }
+                if (object.has("enPassant")) {
+                    board.setEnPassantSquare(object.get("enPassant").getAsInt());
+                }
+                return board;
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                throw new JsonSyntaxException("Invalid board: " + ex.getMessage(), ex);
+            }
+        }
+
+        /**
+         * Reads the original board format, an 8 by 8 array of rows from row 1, each holding a
+         * piece written field by field or null for every column. That format had no castling
+         * rights, so they are inferred from where the kings and rooks stand.
+         */
+        private ChessBoard readSquares(JsonElement squares) {
+            try {
+                JsonArray rows = squares.getAsJsonArray();
+                if (rows.size() != BOARD_LENGTH) {
+                    throw new JsonSyntaxException("Expected 8 rows but was " + rows.size());
+                }
+
+                var board = new ChessBoard();
+                for (int row = 0; row < BOARD_LENGTH; row++) {
+                    JsonArray cols = rows.get(row).getAsJsonArray();
+                    if (cols.size() != BOARD_LENGTH) {
+                        throw new JsonSyntaxException("Expected 8 squares in row " + (row + 1)
+                                + " but was " + cols.size());
+                    }
+                    for (int col = 0; col < BOARD_LENGTH; col++) {
+                        JsonElement square = cols.get(col);
+                        if (!square.isJsonNull()) {
+                            board.addPiece(ChessPosition.of(row + 1, col + 1),
+                                    readSquarePiece(square.getAsJsonObject()));
+                        }
+                    }
+                }
+                board.inferCastlingRights();
+                return board;
+            } catch (IllegalArgumentException | IllegalStateException
+                    | NullPointerException ex) {
+                throw new JsonSyntaxException("Invalid board squares: " + ex.getMessage(), ex);
+            }
+        }
+
+        private ChessPiece readSquarePiece(JsonObject piece) {
+            var team = ChessGame.TeamColor.valueOf(piece.get("pieceColor").getAsString());
+            var type = ChessPiece.PieceType.valueOf(piece.get("type").getAsString());
+            return ChessPiece.of(team, type);
+        }
+    }
+}
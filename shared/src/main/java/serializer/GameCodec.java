@@ -0,0 +1,137 @@
+package serializer;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Encodes the state of a game in a small, versioned binary format for storage. Version 1 is 39
+ * bytes:
+ * <ul>
+ * <li>byte 0: the format version</li>
+ * <li>bytes 1-32: the board, one 4-bit code per square from row 1 column 1 up to row 8 column 8,
+ * low nibble first, where 0 is an empty square and otherwise the team's ordinal times six plus
+ * the piece type's ordinal plus one</li>
+ * <li>byte 33: bit 0 set if black is to move, bit 1 set if the game is playable, bits 2-5 the
+ * castling rights</li>
+ * <li>byte 34: the en passant square, or 0xFF if there is none</li>
+ * <li>bytes 35-36 and 37-38: the halfmove clock and fullmove number, big-endian and unsigned</li>
+ * </ul>
+ * The first byte of a JSON game is always '{', which is never a valid version, so callers can
+ * tell the two formats apart with {@link #isEncoded(byte[])}.
+ */
+public final class GameCodec {
+    public static final int VERSION = 1;
+
+    private static final int BOARD_OFFSET = 1;
+    private static final int FLAGS_OFFSET = 33;
+    private static final int EN_PASSANT_OFFSET = 34;
+    private static final int HALFMOVE_OFFSET = 35;
+    private static final int FULLMOVE_OFFSET = 37;
+    private static final int LENGTH = 39;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int PLAYABLE = 2;
+    private static final int CASTLING_SHIFT = 2;
+    private static final int NO_EN_PASSANT = 0xFF;
+    private static final int MAX_CLOCK = 0xFFFF;
+
+    // a piece's code is its index plus one, leaving code 0 for an empty square
+    private static final int PIECE_CODES = ChessGame.TeamColor.values().length
+            * ChessPiece.PieceType.values().length + 1;
+
+    private GameCodec() {}
+
+    /**
+     * @param game the game to encode
+     * @return the game in the current binary format
+     */
+    public static byte[] encode(ChessGame game) {
+        byte[] bytes = new byte[LENGTH];
+        bytes[0] = VERSION;
+
+        ChessBoard board = game.getBoard();
+        for (int code = 1; code < PIECE_CODES; code++) {
+            ChessPiece piece = ChessPiece.fromIndex(code - 1);
+            long squares = board.getPieceBitboard(piece.getTeamColor(), piece.getPieceType());
+            for (; squares != 0; squares &= squares - 1) {
+                int square = Long.numberOfTrailingZeros(squares);
+                bytes[BOARD_OFFSET + square / 2] |= (byte) (code << (square % 2) * 4);
+            }
+        }
+
+        int flags = board.getCastlingRights() << CASTLING_SHIFT;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+            flags |= BLACK_TO_MOVE;
+        }
+        if (game.getPlayable()) {
+            flags |= PLAYABLE;
+        }
+        bytes[FLAGS_OFFSET] = (byte) flags;
+
+        int enPassantSquare = board.getEnPassantSquare();
+        bytes[EN_PASSANT_OFFSET] =
+                (byte) (enPassantSquare == ChessBoard.NO_SQUARE ? NO_EN_PASSANT : enPassantSquare);
+        writeShort(bytes, HALFMOVE_OFFSET, Math.min(game.getHalfmoveClock(), MAX_CLOCK));
+        writeShort(bytes, FULLMOVE_OFFSET, Math.min(game.getFullmoveNumber(), MAX_CLOCK));
+        return bytes;
+    }
+
+    /**
+     * @param bytes a game encoded by {@link #encode(ChessGame)}
+     * @return the decoded game
+     * @throws IllegalArgumentException if the bytes are not a game in a known version
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (!isEncoded(bytes)) {
+            throw new IllegalArgumentException("Not an encoded game");
+        }
+        if (bytes.length != LENGTH) {
+            throw new IllegalArgumentException(
+                    "Encoded game has " + bytes.length + " bytes, expected " + LENGTH);
+        }
+
+        var board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int code = bytes[BOARD_OFFSET + square / 2] >>> (square % 2) * 4 & 0xF;
+            if (code >= PIECE_CODES) {
+                throw new IllegalArgumentException("Invalid piece code " + code);
+            }
+            if (code != 0) {
+                board.addPiece(ChessPosition.fromSquare(square), ChessPiece.fromIndex(code - 1));
+            }
+        }
+
+        int flags = bytes[FLAGS_OFFSET] & 0xFF;
+        board.setCastlingRights(flags >>> CASTLING_SHIFT);
+        int enPassantSquare = bytes[EN_PASSANT_OFFSET] & 0xFF;
+        board.setEnPassantSquare(
+                enPassantSquare == NO_EN_PASSANT ? ChessBoard.NO_SQUARE : enPassantSquare);
+
+        var game = new ChessGame(board, (flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK
+                : ChessGame.TeamColor.WHITE);
+        game.setPlayable((flags & PLAYABLE) != 0);
+        game.setHalfmoveClock(readShort(bytes, HALFMOVE_OFFSET));
+        game.setFullmoveNumber(readShort(bytes, FULLMOVE_OFFSET));
+        return game;
+    }
+
+    /**
+     * @param bytes the stored bytes of a game
+     * @return True if the bytes start with a known version of this format, false if they are
+     *         something else, such as a game stored as JSON
+     */
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length > 0 && bytes[0] == VERSION;
+    }
+
+    private static void writeShort(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 8);
+        bytes[offset + 1] = (byte) value;
+    }
+
+    private static int readShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 8 | (bytes[offset + 1] & 0xFF);
+    }
+}
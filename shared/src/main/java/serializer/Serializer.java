@@ -28,7 +28,7 @@ public class Serializer {
     private final Gson gson;
 
     public Serializer() {
-        this.gson = new GsonBuilder()
+        this.gson = ChessAdapters.register(new GsonBuilder())
                 .registerTypeAdapter(ServerMessage.class, new ServerMessageDeserializer()).create();
     }
 
@@ -28,7 +28,7 @@ public class UserGameCommand {
     }
 
     public enum CommandType {
-        CONNECT, MAKE_MOVE, LEAVE, RESIGN
+        CONNECT, MAKE_MOVE, LEAVE, RESIGN, HINT
     }
 
     public CommandType getCommandType() {
@@ -0,0 +1,216 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ChessBoardTests {
+
+    @Test
+    public void makeMoveMovesPiece() {
+        var board = new ChessBoard();
+        board.resetBoard();
+
+        board.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        Assertions.assertNull(board.getPiece(new ChessPosition(2, 5)));
+        Assertions.assertEquals(
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                board.getPiece(new ChessPosition(4, 5)));
+    }
+
+    @Test
+    public void offBoardPositionsAreRejected() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var expected = board.clone();
+        var rook = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+
+        // (0, 9) and (9, 1) have square numbers 0 and 64, which would both land on a1
+        for (var position : new ChessPosition[] {new ChessPosition(0, 9),
+                new ChessPosition(9, 1), new ChessPosition(1, 0), new ChessPosition(4, 9)}) {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> board.getPiece(position));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> board.addPiece(position, rook));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> board.removePiece(position));
+        }
+        Assertions.assertEquals(expected, board);
+    }
+
+    @Test
+    public void unmakeMoveRestoresCapture() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var expected = board.clone();
+
+        board.makeMove(new ChessMove(new ChessPosition(1, 4), new ChessPosition(7, 4), null));
+        board.makeMove(new ChessMove(new ChessPosition(8, 5), new ChessPosition(7, 4), null));
+        Assertions.assertNotEquals(expected, board);
+
+        board.unmakeMove();
+        board.unmakeMove();
+        Assertions.assertEquals(expected, board);
+    }
+
+    @Test
+    public void unmakeMoveRestoresPromotion() {
+        var board = new ChessBoard();
+        var start = new ChessPosition(7, 1);
+        var end = new ChessPosition(8, 2);
+        var pawn = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+        var rook = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        board.addPiece(start, pawn);
+        board.addPiece(end, rook);
+
+        board.makeMove(new ChessMove(start, end, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                board.getPiece(end));
+
+        board.unmakeMove();
+        Assertions.assertEquals(pawn, board.getPiece(start));
+        Assertions.assertEquals(rook, board.getPiece(end));
+    }
+
+    @Test
+    public void unmakeMoveWithoutHistory() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertThrows(IllegalStateException.class, board::unmakeMove);
+    }
+
+    @Test
+    public void squareAttackedBySliderUntilBlocked() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+
+        Assertions.assertTrue(
+                board.isSquareAttacked(new ChessPosition(8, 8), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(
+                board.isSquareAttacked(new ChessPosition(8, 8), ChessGame.TeamColor.WHITE));
+
+        board.addPiece(new ChessPosition(4, 4),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertTrue(
+                board.isSquareAttacked(new ChessPosition(4, 4), ChessGame.TeamColor.BLACK));
+        Assertions.assertFalse(
+                board.isSquareAttacked(new ChessPosition(8, 8), ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    public void squareAttackedByPawnsOnlyDiagonally() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(4, 4),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+
+        Assertions.assertTrue(
+                board.isSquareAttacked(new ChessPosition(5, 5), ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(
+                board.isSquareAttacked(new ChessPosition(5, 3), ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(
+                board.isSquareAttacked(new ChessPosition(5, 4), ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(
+                board.isSquareAttacked(new ChessPosition(3, 5), ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    public void positionKeyFollowsMoves() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        long startKey = board.positionKey();
+
+        board.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        board.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        board.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        Assertions.assertNotEquals(startKey, board.positionKey());
+
+        var rebuilt = new ChessBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = new ChessPosition(row, col);
+                rebuilt.addPiece(position, board.getPiece(position));
+            }
+        }
+        Assertions.assertEquals(rebuilt.positionKey(), board.positionKey());
+
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+        Assertions.assertEquals(startKey, board.positionKey());
+    }
+
+    @Test
+    public void castlingMovesRookAndUnmakeRestoresIt() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(1, 8),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 5),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.inferCastlingRights();
+        var expected = board.clone();
+        Assertions.assertEquals(ChessBoard.WHITE_KINGSIDE, board.getCastlingRights());
+
+        board.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null));
+        Assertions.assertEquals(
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                board.getPiece(new ChessPosition(1, 6)));
+        Assertions.assertNull(board.getPiece(new ChessPosition(1, 8)));
+        Assertions.assertEquals(0, board.getCastlingRights());
+
+        board.unmakeMove();
+        Assertions.assertEquals(expected, board);
+        Assertions.assertEquals(expected.positionKey(), board.positionKey());
+        Assertions.assertEquals(ChessBoard.WHITE_KINGSIDE, board.getCastlingRights());
+    }
+
+    @Test
+    public void rookMoveLosesOnlyItsCastlingRight() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        board.removePiece(new ChessPosition(2, 1));
+
+        board.makeMove(new ChessMove(new ChessPosition(1, 1), new ChessPosition(3, 1), null));
+        Assertions.assertEquals(ChessBoard.ALL_CASTLING & ~ChessBoard.WHITE_QUEENSIDE,
+                board.getCastlingRights());
+
+        board.makeMove(new ChessMove(new ChessPosition(3, 1), new ChessPosition(1, 1), null));
+        Assertions.assertEquals(ChessBoard.ALL_CASTLING & ~ChessBoard.WHITE_QUEENSIDE,
+                board.getCastlingRights());
+    }
+
+    @Test
+    public void enPassantSquareOnlyWhenCapturable() {
+        var board = new ChessBoard();
+        board.resetBoard();
+
+        board.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        Assertions.assertEquals(ChessBoard.NO_SQUARE, board.getEnPassantSquare());
+
+        board.makeMove(new ChessMove(new ChessPosition(7, 1), new ChessPosition(6, 1), null));
+        board.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 5), null));
+        board.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        Assertions.assertEquals(new ChessPosition(6, 4).getSquare(), board.getEnPassantSquare());
+    }
+
+    @Test
+    public void unmakeEnPassantRestoresCapturedPawn() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        board.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(5, 5), null));
+        board.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        var expected = board.clone();
+        int enPassantSquare = board.getEnPassantSquare();
+
+        board.makeMove(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null));
+        Assertions.assertNull(board.getPiece(new ChessPosition(5, 4)));
+        Assertions.assertEquals(ChessBoard.NO_SQUARE, board.getEnPassantSquare());
+
+        board.unmakeMove();
+        Assertions.assertEquals(expected, board);
+        Assertions.assertEquals(enPassantSquare, board.getEnPassantSquare());
+    }
+}
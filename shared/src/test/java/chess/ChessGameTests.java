@@ -0,0 +1,140 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ChessGameTests {
+
+    private static void move(ChessGame game, int startRow, int startCol, int endRow, int endCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(startRow, startCol),
+                new ChessPosition(endRow, endCol), null));
+    }
+
+    @Test
+    public void newGameInProgress() {
+        var game = new ChessGame();
+        Assertions.assertEquals(ChessGame.GameStatus.IN_PROGRESS, game.getGameStatus());
+    }
+
+    @Test
+    public void foolsMateStatus() throws InvalidMoveException {
+        var game = new ChessGame();
+        move(game, 2, 6, 3, 6);
+        move(game, 7, 5, 5, 5);
+        move(game, 2, 7, 4, 7);
+        Assertions.assertEquals(ChessGame.GameStatus.IN_PROGRESS, game.getGameStatus());
+
+        move(game, 8, 4, 4, 8);
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.getGameStatus());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    public void statusRecomputedAfterBoardChange() {
+        var game = new ChessGame();
+        Assertions.assertEquals(ChessGame.GameStatus.IN_PROGRESS, game.getGameStatus());
+
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(3, 2),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(8, 8),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        game.setBoard(board);
+
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE, game.getGameStatus());
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(ChessGame.GameStatus.IN_PROGRESS, game.getGameStatus());
+    }
+
+    @Test
+    public void setBoardLeavesGivenBoardUnchanged() throws InvalidMoveException {
+        var board = ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K2R w - d6 0 1").getBoard();
+        var original = board.clone();
+
+        var game = new ChessGame();
+        game.setBoard(board);
+        move(game, 1, 5, 1, 7);
+
+        Assertions.assertEquals(0, board.getCastlingRights());
+        Assertions.assertEquals(original.getEnPassantSquare(), board.getEnPassantSquare());
+        Assertions.assertEquals(original, board);
+        Assertions.assertNotSame(board, game.getBoard());
+    }
+
+    @Test
+    public void statusSeesDirectBoardEdits() {
+        var game = ChessGame.fromFen("7k/8/8/8/8/8/8/K5R1 b - - 0 1");
+        Assertions.assertEquals(ChessGame.GameStatus.IN_PROGRESS, game.getGameStatus());
+
+        game.getBoard().addPiece(new ChessPosition(7, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE, game.getGameStatus());
+
+        game.getBoard().removePiece(new ChessPosition(1, 7));
+        Assertions.assertEquals(ChessGame.GameStatus.IN_PROGRESS, game.getGameStatus());
+    }
+
+    @Test
+    public void queriesLeaveBoardUnchanged() {
+        for (var positionCache : new PositionCache[] {null, new PositionCache(64)}) {
+            // the black rook is pinned, so its moves have to be tried before they are returned
+            var game = ChessGame.fromFen("4k3/4r3/8/8/8/8/8/4R1K1 b - - 0 1");
+            game.setPositionCache(positionCache);
+            var before = game.getBoard().clone();
+            long key = game.positionKey();
+
+            Assertions.assertEquals(6, game.validMoves(new ChessPosition(7, 5)).size());
+            Assertions.assertEquals(4, game.validMoves(new ChessPosition(8, 5)).size());
+            Assertions.assertFalse(game.validMoves(new ChessPosition(1, 5)).isEmpty());
+            Assertions.assertEquals(ChessGame.GameStatus.IN_PROGRESS, game.getGameStatus());
+            Assertions.assertFalse(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+
+            Assertions.assertEquals(before, game.getBoard());
+            Assertions.assertEquals(key, game.positionKey());
+            Assertions.assertEquals("4k3/4r3/8/8/8/8/8/4R1K1 b - - 0 1", game.toFen());
+        }
+    }
+
+    @Test
+    public void positionKeyIgnoresMoveOrder() throws InvalidMoveException {
+        var first = new ChessGame();
+        move(first, 2, 5, 4, 5);
+        move(first, 8, 7, 6, 6);
+        move(first, 1, 7, 3, 6);
+
+        var second = new ChessGame();
+        move(second, 1, 7, 3, 6);
+        move(second, 8, 7, 6, 6);
+        move(second, 2, 5, 4, 5);
+
+        Assertions.assertEquals(first.positionKey(), second.positionKey());
+        Assertions.assertEquals(first, second);
+
+        second.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertNotEquals(first.positionKey(), second.positionKey());
+    }
+
+    @Test
+    public void positionKeyIncludesCastlingRights() throws InvalidMoveException {
+        var moved = new ChessGame();
+        move(moved, 2, 5, 4, 5);
+        move(moved, 7, 5, 5, 5);
+        move(moved, 1, 5, 2, 5);
+        move(moved, 8, 5, 7, 5);
+        move(moved, 2, 5, 1, 5);
+        move(moved, 7, 5, 8, 5);
+
+        var unmoved = new ChessGame();
+        move(unmoved, 2, 5, 4, 5);
+        move(unmoved, 7, 5, 5, 5);
+
+        Assertions.assertEquals(moved.getBoard(), unmoved.getBoard());
+        Assertions.assertNotEquals(moved.positionKey(), unmoved.positionKey());
+        Assertions.assertNotEquals(moved, unmoved);
+    }
+}
@@ -0,0 +1,29 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ChessPositionTests {
+
+    @Test
+    public void ofReturnsSharedInstance() {
+        Assertions.assertSame(ChessPosition.of(3, 7), ChessPosition.of(3, 7));
+        Assertions.assertEquals(new ChessPosition(3, 7), ChessPosition.of(3, 7));
+    }
+
+    @Test
+    public void ofOffBoard() {
+        var position = ChessPosition.of(9, 1);
+        Assertions.assertFalse(position.inBounds());
+        Assertions.assertEquals(9, position.getRow());
+    }
+
+    @Test
+    public void squareRoundTrip() {
+        for (int square = 0; square < 64; square++) {
+            Assertions.assertEquals(square, ChessPosition.fromSquare(square).getSquare());
+        }
+        Assertions.assertEquals(0, new ChessPosition(1, 1).getSquare());
+        Assertions.assertEquals(63, new ChessPosition(8, 8).getSquare());
+    }
+}
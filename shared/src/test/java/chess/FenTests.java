@@ -0,0 +1,85 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+    private static final String KIWIPETE =
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    public void newGameIsStartPosition() {
+        var game = new ChessGame();
+
+        Assertions.assertEquals(Fen.START_POSITION, game.toFen());
+        Assertions.assertEquals(game, ChessGame.fromFen(Fen.START_POSITION));
+        Assertions.assertEquals(game.positionKey(),
+                ChessGame.fromFen(Fen.START_POSITION).positionKey());
+    }
+
+    @Test
+    public void roundTripKeepsEveryField() {
+        String fen = "r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 3 42";
+        var game = ChessGame.fromFen(fen);
+
+        Assertions.assertEquals(fen, game.toFen());
+        Assertions.assertEquals(ChessBoard.WHITE_KINGSIDE | ChessBoard.BLACK_QUEENSIDE,
+                game.getBoard().getCastlingRights());
+        Assertions.assertEquals(new ChessPosition(6, 4).getSquare(),
+                game.getBoard().getEnPassantSquare());
+        Assertions.assertEquals(3, game.getHalfmoveClock());
+        Assertions.assertEquals(42, game.getFullmoveNumber());
+        Assertions.assertEquals(KIWIPETE, ChessGame.fromFen(KIWIPETE).toFen());
+    }
+
+    @Test
+    public void clocksFollowMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        Assertions.assertEquals(1, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.getFullmoveNumber());
+
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(2, game.getFullmoveNumber());
+
+        Assertions.assertEquals(
+                "rnbqkbnr/pppp1ppp/8/4p3/8/5N2/PPPPPPPP/RNBQKB1R w KQkq - 0 2", game.toFen());
+    }
+
+    @Test
+    public void unusableEnPassantSquareIsDropped() {
+        var game = ChessGame.fromFen(
+                "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+
+        Assertions.assertEquals(ChessBoard.NO_SQUARE, game.getBoard().getEnPassantSquare());
+        Assertions.assertEquals(
+                "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", game.toFen());
+    }
+
+    @Test
+    public void clocksAreOptional() {
+        var game = ChessGame.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -");
+
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.getFullmoveNumber());
+        Assertions.assertEquals(0, game.getBoard().getCastlingRights());
+    }
+
+    @Test
+    public void invalidFen() {
+        String[] invalid = {"", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - zero 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra"};
+
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen),
+                    fen);
+        }
+    }
+}
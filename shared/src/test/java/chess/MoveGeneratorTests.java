@@ -0,0 +1,55 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MoveGeneratorTests {
+
+    @Test
+    public void packedMoveRoundTrip() {
+        var move = new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 1),
+                ChessPiece.PieceType.KNIGHT);
+        int packed = PackedMove.fromChessMove(move);
+
+        Assertions.assertEquals(move, PackedMove.toChessMove(packed));
+        Assertions.assertEquals(move, PackedMove.toChessMove(packed | PackedMove.CAPTURE));
+        Assertions.assertFalse(PackedMove.isCapture(packed));
+    }
+
+    @Test
+    public void startingPositionMoves() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var moves = new MoveList();
+
+        MoveGenerator.generateLegalMoves(board, ChessGame.TeamColor.WHITE, moves);
+        Assertions.assertEquals(20, moves.size());
+
+        moves.clear();
+        MoveGenerator.generateLegalMoves(board, ChessGame.TeamColor.BLACK, moves);
+        Assertions.assertEquals(20, moves.size());
+    }
+
+    @Test
+    public void capturesAreFlagged() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(4, 4),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(new ChessPosition(6, 5),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        var moves = new MoveList();
+
+        MoveGenerator.generateMoves(board, new ChessPosition(4, 4).getSquare(), moves);
+        Assertions.assertEquals(8, moves.size());
+
+        int captures = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.isCapture(moves.get(i))) {
+                captures++;
+                Assertions.assertEquals(new ChessPosition(6, 5).getSquare(),
+                        PackedMove.to(moves.get(i)));
+            }
+        }
+        Assertions.assertEquals(1, captures);
+    }
+}
@@ -0,0 +1,77 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PositionCacheTests {
+
+    @Test
+    public void gamesShareCachedPositions() {
+        var cache = new PositionCache(64);
+        var first = new ChessGame();
+        var second = new ChessGame();
+        first.setPositionCache(cache);
+        second.setPositionCache(cache);
+
+        Assertions.assertEquals(20, countMoves(first));
+        Assertions.assertEquals(1, cache.missCount());
+
+        Assertions.assertEquals(ChessGame.GameStatus.IN_PROGRESS, second.getGameStatus());
+        Assertions.assertEquals(20, countMoves(second));
+        Assertions.assertEquals(1, cache.missCount());
+        Assertions.assertTrue(cache.hitCount() > 0);
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void cachedMovesMatchUncachedMoves() throws InvalidMoveException {
+        var cached = new ChessGame();
+        var uncached = new ChessGame();
+        cached.setPositionCache(new PositionCache(64));
+        uncached.setPositionCache(null);
+
+        var move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        cached.makeMove(move);
+        uncached.makeMove(move);
+
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = new ChessPosition(row, col);
+                Assertions.assertEquals(uncached.validMoves(position),
+                        cached.validMoves(position));
+            }
+        }
+        Assertions.assertEquals(uncached.getGameStatus(), cached.getGameStatus());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        // sixteen stripes of two positions, and these keys all land in the first stripe
+        var cache = new PositionCache(32);
+        var entry = new PositionCache.Entry(new int[0], ChessGame.GameStatus.STALEMATE);
+        cache.put(0, entry);
+        cache.put(16, entry);
+        Assertions.assertNotNull(cache.get(0));
+        cache.put(32, entry);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.evictionCount());
+        Assertions.assertNull(cache.get(16));
+        Assertions.assertNotNull(cache.get(0));
+        Assertions.assertNotNull(cache.get(32));
+    }
+
+    private static int countMoves(ChessGame game) {
+        int count = 0;
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                var position = new ChessPosition(row, col);
+                ChessPiece piece = game.getBoard().getPiece(position);
+                if (piece != null && piece.getTeamColor() == game.getTeamTurn()) {
+                    count += game.validMoves(position).size();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,80 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TeamPositionsTests {
+
+    @Test
+    public void applyMoveMatchesRefresh() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var positions = new TeamPositions(board);
+
+        var moves = new ChessMove[] {
+            new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+            new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null),
+            new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null),
+            new ChessMove(new ChessPosition(8, 5), new ChessPosition(7, 4), null)};
+        for (ChessMove move : moves) {
+            positions.applyMove(move, board.getPiece(move.getStartPosition()));
+            board.makeMove(move);
+        }
+
+        Assertions.assertEquals(new TeamPositions(board), positions);
+        Assertions.assertEquals(16,
+                positions.getFriendlyPositions(ChessGame.TeamColor.WHITE).size());
+        Assertions.assertEquals(15,
+                positions.getEnemyPositions(ChessGame.TeamColor.WHITE).size());
+        Assertions.assertEquals(new ChessPosition(7, 4),
+                positions.getKingPosition(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    public void applyMoveHandlesEnPassantAndCastling() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var positions = new TeamPositions(board);
+
+        var moves = new ChessMove[] {
+            new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+            new ChessMove(new ChessPosition(7, 1), new ChessPosition(6, 1), null),
+            new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 5), null),
+            new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null),
+            new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null),
+            new ChessMove(new ChessPosition(6, 1), new ChessPosition(5, 1), null),
+            new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+            new ChessMove(new ChessPosition(5, 1), new ChessPosition(4, 1), null),
+            new ChessMove(new ChessPosition(1, 6), new ChessPosition(4, 3), null),
+            new ChessMove(new ChessPosition(4, 1), new ChessPosition(3, 1), null),
+            new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null)};
+        for (ChessMove move : moves) {
+            positions.applyMove(move, board.getPiece(move.getStartPosition()));
+            board.makeMove(move);
+        }
+
+        Assertions.assertEquals(new TeamPositions(board), positions);
+        Assertions.assertEquals(15,
+                positions.getEnemyPositions(ChessGame.TeamColor.WHITE).size());
+        Assertions.assertTrue(positions.getFriendlyPositions(ChessGame.TeamColor.WHITE)
+                .contains(new ChessPosition(1, 6)));
+        Assertions.assertEquals(new ChessPosition(1, 7),
+                positions.getKingPosition(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    public void positionViewsFollowUpdates() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var positions = new TeamPositions(board);
+        var whitePositions = positions.getFriendlyPositions(ChessGame.TeamColor.WHITE);
+        var start = new ChessPosition(2, 1);
+        var end = new ChessPosition(3, 1);
+
+        Assertions.assertTrue(whitePositions.contains(start));
+        positions.applyMove(new ChessMove(start, end, null), board.getPiece(start));
+        Assertions.assertFalse(whitePositions.contains(start));
+        Assertions.assertTrue(whitePositions.contains(end));
+        Assertions.assertFalse(whitePositions.contains(new ChessPosition(0, 1)));
+    }
+}
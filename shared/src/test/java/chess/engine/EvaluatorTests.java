@@ -0,0 +1,88 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EvaluatorTests {
+
+    @Test
+    public void startPositionIsEven() {
+        var board = new ChessBoard();
+        board.resetBoard();
+
+        for (Evaluator evaluator : new Evaluator[] {new MaterialEvaluator(),
+            new PieceSquareEvaluator()}) {
+            evaluator.reset(board);
+            Assertions.assertEquals(0, evaluator.evaluate(board, ChessGame.TeamColor.WHITE));
+            Assertions.assertEquals(0, evaluator.evaluate(board, ChessGame.TeamColor.BLACK));
+        }
+    }
+
+    @Test
+    public void incrementalScoreMatchesRecomputed() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var evaluator = new PieceSquareEvaluator();
+        evaluator.reset(board);
+        board.setPieceListener(evaluator);
+
+        board.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        board.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        board.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        board.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(5, 4), null));
+        int incremental = evaluator.evaluate(board, ChessGame.TeamColor.WHITE);
+
+        var fresh = new PieceSquareEvaluator();
+        fresh.reset(board);
+        Assertions.assertEquals(fresh.evaluate(board, ChessGame.TeamColor.WHITE), incremental);
+
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+        Assertions.assertEquals(0, evaluator.evaluate(board, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    public void prefersCentralKnight() {
+        var center = boardWithKnight(new ChessPosition(4, 4));
+        var rim = boardWithKnight(new ChessPosition(1, 1));
+        var evaluator = new PieceSquareEvaluator();
+
+        evaluator.reset(center);
+        int centerScore = evaluator.evaluate(center, ChessGame.TeamColor.WHITE);
+        evaluator.reset(rim);
+        int rimScore = evaluator.evaluate(rim, ChessGame.TeamColor.WHITE);
+
+        Assertions.assertTrue(centerScore > rimScore);
+    }
+
+    @Test
+    public void searchUsesGivenEvaluator() {
+        var board = boardWithKnight(new ChessPosition(4, 4));
+        board.addPiece(new ChessPosition(6, 5),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+
+        var search = new Search(board, ChessGame.TeamColor.WHITE, new TranspositionTable(1 << 10),
+                new MaterialEvaluator());
+        var result = search.search(SearchLimits.depth(2));
+
+        Assertions.assertEquals(
+                new ChessMove(new ChessPosition(4, 4), new ChessPosition(6, 5), null),
+                result.bestMove());
+        Assertions.assertEquals(MaterialEvaluator.pieceValue(ChessPiece.PieceType.KNIGHT),
+                result.score());
+    }
+
+    private static ChessBoard boardWithKnight(ChessPosition knightPosition) {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(8, 5),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(knightPosition,
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        return board;
+    }
+}
@@ -0,0 +1,82 @@
+package chess.engine;
+
+import chess.*;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearchTests {
+
+    @Test
+    public void findsMateOnSeveralThreads() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 7),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(1, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 7),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        for (int col = 6; col <= 8; col++) {
+            board.addPiece(new ChessPosition(7, col),
+                    new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        }
+
+        try (var search = new ParallelSearch(4)) {
+            var result = search.search(board, ChessGame.TeamColor.WHITE, SearchLimits.depth(4));
+            Assertions.assertEquals(
+                    new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                    result.bestMove());
+        }
+    }
+
+    @Test
+    public void searchesOnEveryThread() {
+        var game = new ChessGame();
+
+        try (var search = new ParallelSearch(4, new TranspositionTable(1 << 12),
+                PieceSquareEvaluator::new)) {
+            var result = search.search(game, SearchLimits.depth(4));
+            Assertions.assertEquals(4, result.depth());
+            Assertions.assertNotNull(result.bestMove());
+            Assertions.assertTrue(result.nodes() > 0);
+            Assertions.assertTrue(result.nodesPerSecond() > 0);
+        }
+    }
+
+    @Test
+    public void countsNodesOfEveryThread() {
+        var move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        var main = new SearchResult(move, 25, 6, 1000, 5_000_000, List.of(move));
+        var helperRuns = List.of(
+                new SearchResult(null, 0, 5, 700, 4_000_000, List.of()),
+                new SearchResult(null, 0, 7, 300, 4_000_000, List.of()),
+                new SearchResult(null, 0, 0, 0, 0, List.of()));
+
+        var result = ParallelSearch.combine(main, helperRuns);
+
+        Assertions.assertEquals(2000, result.nodes());
+        Assertions.assertEquals(move, result.bestMove());
+        Assertions.assertEquals(25, result.score());
+        Assertions.assertEquals(6, result.depth());
+        Assertions.assertEquals(5_000_000, result.elapsedNanos());
+        Assertions.assertEquals(List.of(move), result.principalVariation());
+        Assertions.assertEquals(main.nodes(), ParallelSearch.combine(main, List.of()).nodes());
+    }
+
+    @Test
+    public void tableRoundTripsEntries() {
+        var table = new TranspositionTable(1 << 4);
+        table.store(42, 0x1234, -Search.MATE_SCORE + 3, 7, TranspositionTable.UPPER_BOUND);
+
+        long entry = table.probe(42);
+        Assertions.assertNotEquals(0, entry);
+        Assertions.assertEquals(0x1234, TranspositionTable.move(entry));
+        Assertions.assertEquals(-Search.MATE_SCORE + 3, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.bound(entry));
+
+        Assertions.assertEquals(0, table.probe(42 + 16));
+        table.clear();
+        Assertions.assertEquals(0, table.probe(42));
+    }
+}
@@ -0,0 +1,94 @@
+package chess.engine;
+
+import chess.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    private static ChessPiece piece(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return new ChessPiece(color, type);
+    }
+
+    @Test
+    public void findsBackRankMate() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 7),
+                piece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(1, 1),
+                piece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 7),
+                piece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        for (int col = 6; col <= 8; col++) {
+            board.addPiece(new ChessPosition(7, col),
+                    piece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        }
+
+        var result = new Search(board, ChessGame.TeamColor.WHITE).search(SearchLimits.depth(4));
+
+        Assertions.assertEquals(
+                new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                result.bestMove());
+        Assertions.assertTrue(result.isMateScore());
+        Assertions.assertEquals(Search.MATE_SCORE - 1, result.score());
+    }
+
+    @Test
+    public void capturesHangingQueen() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1),
+                piece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(4, 4),
+                piece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(new ChessPosition(6, 5),
+                piece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(8, 8),
+                piece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+
+        var result = new Search(board, ChessGame.TeamColor.WHITE).search(SearchLimits.depth(3));
+
+        Assertions.assertEquals(
+                new ChessMove(new ChessPosition(4, 4), new ChessPosition(6, 5), null),
+                result.bestMove());
+        Assertions.assertTrue(result.score() > 0);
+    }
+
+    @Test
+    public void reportsPrincipalVariationAndSpeed() {
+        var game = new ChessGame();
+        var result = new Search(game).search(SearchLimits.depth(4));
+
+        Assertions.assertEquals(4, result.depth());
+        Assertions.assertEquals(result.bestMove(), result.principalVariation().get(0));
+        Assertions.assertTrue(game.validMoves(result.bestMove().getStartPosition())
+                .contains(result.bestMove()));
+        Assertions.assertTrue(result.nodes() > 0);
+        Assertions.assertTrue(result.nodesPerSecond() > 0);
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+
+    @Test
+    public void stopsAtNodeBudget() {
+        var result = new Search(new ChessGame()).search(SearchLimits.nodes(5_000));
+
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertTrue(result.depth() < SearchLimits.MAX_DEPTH);
+    }
+
+    @Test
+    public void noMoveWhenCheckmated() {
+        var board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1),
+                piece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(2, 2),
+                piece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        board.addPiece(new ChessPosition(3, 3),
+                piece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+
+        var result = new Search(board, ChessGame.TeamColor.WHITE).search(SearchLimits.depth(3));
+
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(-Search.MATE_SCORE, result.score());
+    }
+}
@@ -0,0 +1,39 @@
+package chess.perft;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PerftTests {
+    private static final int MAX_TEST_DEPTH = 3;
+
+    @Test
+    public void referencePositions() {
+        for (PerftPosition position : Perft.REFERENCE_POSITIONS) {
+            var perft = new Perft(ChessGame.fromFen(position.fen()));
+            for (int depth = 1; depth <= Math.min(MAX_TEST_DEPTH, position.maxDepth()); depth++) {
+                Assertions.assertEquals(position.expectedNodes(depth), perft.perft(depth),
+                        position.name() + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    public void divideSumsToPerft() {
+        var perft = new Perft(new ChessGame());
+        var counts = perft.divide(3);
+
+        Assertions.assertEquals(20, counts.size());
+        Assertions.assertEquals(perft.perft(3),
+                counts.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    public void perftLeavesGameUnchanged() {
+        var game = new ChessGame();
+        var board = game.getBoard().clone();
+
+        new Perft(game).perft(2);
+        Assertions.assertEquals(board, game.getBoard());
+    }
+}
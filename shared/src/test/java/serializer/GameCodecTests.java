@@ -0,0 +1,74 @@
+package serializer;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GameCodecTests {
+
+    @Test
+    public void newGameRoundTrip() {
+        var game = new ChessGame();
+        byte[] bytes = GameCodec.encode(game);
+        var copy = GameCodec.decode(bytes);
+
+        Assertions.assertEquals(39, bytes.length);
+        Assertions.assertEquals(game, copy);
+        Assertions.assertEquals(game.positionKey(), copy.positionKey());
+        Assertions.assertTrue(copy.getPlayable());
+    }
+
+    @Test
+    public void roundTripKeepsEveryField() {
+        var game = ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 3 42");
+        game.setPlayable(false);
+
+        var copy = GameCodec.decode(GameCodec.encode(game));
+
+        Assertions.assertEquals(game.toFen(), copy.toFen());
+        Assertions.assertEquals(game, copy);
+        Assertions.assertFalse(copy.getPlayable());
+    }
+
+    @Test
+    public void roundTripAfterMoves() throws InvalidMoveException {
+        var game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+
+        var copy = GameCodec.decode(GameCodec.encode(game));
+
+        Assertions.assertEquals(game.toFen(), copy.toFen());
+        Assertions.assertEquals(ChessBoard.BLACK_KINGSIDE | ChessBoard.BLACK_QUEENSIDE,
+                copy.getBoard().getCastlingRights());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, copy.getTeamTurn());
+    }
+
+    @Test
+    public void jsonIsNotEncoded() {
+        byte[] json = new Serializer().toJson(new ChessGame()).getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertFalse(GameCodec.isEncoded(json));
+        Assertions.assertFalse(GameCodec.isEncoded(new byte[0]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(json));
+    }
+
+    @Test
+    public void decodeInvalidBytes() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        byte[] badPiece = bytes.clone();
+        badPiece[20] = (byte) 0xFF;
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GameCodec.decode(truncated));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(badPiece));
+    }
+}
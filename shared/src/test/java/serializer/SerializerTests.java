@@ -1,5 +1,12 @@
 package serializer;
 
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import responses.ErrorResponse;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Assertions;
@@ -22,4 +29,93 @@ public class SerializerTests {
         String message = "{\"message\":\"/db has no request body\"}";
         Assertions.assertEquals(serializer.fromJson(message, ErrorResponse.class), response);
     }
+
+    @Test
+    public void deserializedGameKeepsPositionKey() {
+        var game = new ChessGame();
+        var copy = serializer.fromJson(serializer.toJson(game), ChessGame.class);
+        Assertions.assertEquals(game.positionKey(), copy.positionKey());
+        Assertions.assertEquals(game, copy);
+    }
+
+    @Test
+    public void serializePieceAsCode() {
+        var whiteKing = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+        var blackPawn = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+
+        Assertions.assertEquals("\"K\"", serializer.toJson(whiteKing));
+        Assertions.assertEquals("\"p\"", serializer.toJson(blackPawn));
+        Assertions.assertEquals(blackPawn, serializer.fromJson("\"p\"", ChessPiece.class));
+        Assertions.assertThrows(JsonSyntaxException.class,
+                () -> serializer.fromJson("\"x\"", ChessPiece.class));
+    }
+
+    @Test
+    public void serializeBoardAsPlacement() {
+        var board = new ChessBoard();
+        board.resetBoard();
+
+        String json = serializer.toJson(board);
+        Assertions.assertEquals("{\"placement\":\"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR\","
+                + "\"castling\":15,\"enPassant\":-1}", json);
+
+        var copy = serializer.fromJson(json, ChessBoard.class);
+        Assertions.assertEquals(board, copy);
+        Assertions.assertEquals(ChessBoard.ALL_CASTLING, copy.getCastlingRights());
+    }
+
+    @Test
+    public void gameRoundTripKeepsFen() {
+        var game = ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 3 42");
+        var copy = serializer.fromJson(serializer.toJson(game), ChessGame.class);
+
+        Assertions.assertEquals(game.toFen(), copy.toFen());
+        Assertions.assertEquals(game, copy);
+    }
+
+    @Test
+    public void deserializeFieldByFieldJson() {
+        var board = new ChessBoard();
+        board.resetBoard();
+        var piece = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
+        var plainGson = new Gson();
+
+        Assertions.assertEquals(board,
+                serializer.fromJson(plainGson.toJson(board), ChessBoard.class));
+        Assertions.assertEquals(piece,
+                serializer.fromJson(plainGson.toJson(piece), ChessPiece.class));
+    }
+
+    @Test
+    public void deserializeInvalidBoard() {
+        Assertions.assertThrows(JsonSyntaxException.class,
+                () -> serializer.fromJson("{\"placement\":\"8/8\"}", ChessBoard.class));
+    }
+
+    @Test
+    public void deserializeBaselineGame() throws IOException {
+        // written by the original squares-array ChessBoard after 1. e4 e5 2. Nf3
+        String json;
+        try (var in = getClass().getResourceAsStream("baseline-game.json")) {
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        var game = serializer.fromJson(json, ChessGame.class);
+
+        Assertions.assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 0 1",
+                game.toFen());
+        Assertions.assertTrue(game.getPlayable());
+        Assertions.assertEquals(ChessGame.fromFen(game.toFen()).positionKey(), game.positionKey());
+    }
+
+    @Test
+    public void deserializeUnknownBoardFormat() {
+        Assertions.assertThrows(JsonSyntaxException.class,
+                () -> serializer.fromJson("{\"boardLength\":8}", ChessBoard.class));
+        Assertions.assertThrows(JsonSyntaxException.class,
+                () -> serializer.fromJson("{\"squares\":[[null]]}", ChessBoard.class));
+        Assertions.assertThrows(JsonSyntaxException.class,
+                () -> serializer.fromJson("{\"board\":{\"boardLength\":8},\"teamTurn\":\"WHITE\"}",
+                        ChessGame.class));
+    }
 }